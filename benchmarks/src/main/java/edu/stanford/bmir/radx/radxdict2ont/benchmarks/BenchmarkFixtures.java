@@ -0,0 +1,37 @@
+package edu.stanford.bmir.radx.radxdict2ont.benchmarks;
+
+import edu.stanford.bmir.radx.radxdict2ont.InMemoryOntCsvCache;
+import edu.stanford.bmir.radx.radxdict2ont.OntCsvCacheLoader;
+import edu.stanford.bmir.radx.radxdict2ont.OntCsvSource;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shared state for the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 20231101L;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @return The ontology CSV sources whose exports are bundled on the classpath, in precedence order.
+     */
+    static List<OntCsvSource> getBundledSources() {
+        return Arrays.stream(OntCsvSource.values())
+                     .filter(source -> source.getContentLength() >= 0)
+                     .toList();
+    }
+
+    /**
+     * Eagerly loads every bundled ontology CSV source, so that benchmarks of axiom generation do not measure
+     * source loading.
+     */
+    static InMemoryOntCsvCache loadBundledCache() throws IOException {
+        return new OntCsvCacheLoader(Runtime.getRuntime().availableProcessors()).load(getBundledSources());
+    }
+}
@@ -0,0 +1,61 @@
+package edu.stanford.bmir.radx.radxdict2ont.benchmarks;
+
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.radxdict2ont.CreateAxioms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating the axioms for synthetic data dictionaries end to end, with the terms cache already
+ * loaded.  The largest sizes need a large heap, for example {@code -jvmArgs -Xmx16g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class CreateAxiomsBenchmarks {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    public int recordCount;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private CreateAxioms createAxioms;
+
+    private RADxDataDictionary dataDictionary;
+
+    @Setup
+    public void setUp() throws IOException {
+        createAxioms = new CreateAxioms(new OWLDataFactoryImpl(), BenchmarkFixtures.loadBundledCache());
+        dataDictionary = SyntheticDataDictionary.generate(recordCount, BenchmarkFixtures.SEED);
+    }
+
+    @Benchmark
+    public Set<OWLAxiom> createAxioms() {
+        return createAxioms.createAxioms(dataDictionary, parallelism);
+    }
+
+    @Benchmark
+    public void createAxiomsToSink(Blackhole blackhole) {
+        createAxioms.createAxioms(dataDictionary, parallelism, blackhole::consume);
+    }
+}
@@ -0,0 +1,56 @@
+package edu.stanford.bmir.radx.radxdict2ont.benchmarks;
+
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryRecord;
+import edu.stanford.bmir.radx.radxdict2ont.CreateAxioms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating the axioms for a single data element that is associated with a deep term.  Each invocation
+ * starts with an empty term memo, so the axioms for the term and every one of its ancestors are created from
+ * the terms cache.  Deep MONDO terms, such as {@code MONDO:0005015}, can be measured with {@code -p term=...}
+ * when the MONDO export is on the classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExternalTermBenchmarks {
+
+    @Param({"HP:0000118", "HP:0001250", "HP:0002133", "HP:0011097"})
+    public String term;
+
+    private CreateAxioms createAxioms;
+
+    private List<RADxDataDictionaryRecord> records;
+
+    @Setup
+    public void setUp() throws IOException {
+        createAxioms = new CreateAxioms(new OWLDataFactoryImpl(), BenchmarkFixtures.loadBundledCache());
+        records = SyntheticDataDictionary.generateForTerms(List.of(term)).records();
+    }
+
+    @Benchmark
+    public Map<String, Set<OWLAxiom>> createTermAxioms() {
+        return createAxioms.createRecordAxioms(records);
+    }
+}
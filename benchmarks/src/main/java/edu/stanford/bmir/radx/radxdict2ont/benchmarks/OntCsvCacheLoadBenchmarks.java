@@ -0,0 +1,42 @@
+package edu.stanford.bmir.radx.radxdict2ont.benchmarks;
+
+import edu.stanford.bmir.radx.radxdict2ont.InMemoryOntCsvCache;
+import edu.stanford.bmir.radx.radxdict2ont.OntCsvSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing each bundled ontology CSV export into an {@link InMemoryOntCsvCache}.  MONDO and NCIT can be
+ * measured with {@code -p source=MONDO,NCIT} when their exports are on the classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OntCsvCacheLoadBenchmarks {
+
+    @Param({"IAO", "HP", "PATO", "GSSO", "NBO", "SYMP"})
+    public OntCsvSource source;
+
+    @Benchmark
+    public InMemoryOntCsvCache load() throws IOException {
+        var cache = new InMemoryOntCsvCache();
+        try (var stream = source.openStream()) {
+            cache.load(stream);
+        }
+        return cache;
+    }
+}
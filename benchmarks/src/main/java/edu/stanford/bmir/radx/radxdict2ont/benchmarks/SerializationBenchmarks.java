@@ -0,0 +1,86 @@
+package edu.stanford.bmir.radx.radxdict2ont.benchmarks;
+
+import edu.stanford.bmir.radx.radxdict2ont.CreateAxioms;
+import edu.stanford.bmir.radx.radxdict2ont.FunctionalSyntaxAxiomWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.formats.RDFXMLDocumentFormat;
+import org.semanticweb.owlapi.formats.TurtleDocumentFormat;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLOntology;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serializing the ontology for a synthetic data dictionary, both by saving an in-memory ontology in
+ * each supported format and by streaming the axioms to a {@link FunctionalSyntaxAxiomWriter}.  Output is
+ * discarded, so the measurements exclude disk I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SerializationBenchmarks {
+
+    private static final String PREFIX = "https://bmir-radx.github.io/";
+
+    @Param({"100", "10000", "100000"})
+    public int recordCount;
+
+    @Param({"functional", "rdfxml", "turtle"})
+    public String format;
+
+    private Set<OWLAxiom> axioms;
+
+    private OWLOntology ontology;
+
+    private OWLDocumentFormat documentFormat;
+
+    @Setup
+    public void setUp() throws Exception {
+        var createAxioms = new CreateAxioms(new OWLDataFactoryImpl(), BenchmarkFixtures.loadBundledCache());
+        axioms = createAxioms.createAxioms(SyntheticDataDictionary.generate(recordCount, BenchmarkFixtures.SEED));
+        ontology = OWLManager.createOWLOntologyManager().createOntology(axioms, IRI.create(PREFIX));
+        documentFormat = switch (format) {
+            case "functional" -> new FunctionalSyntaxDocumentFormat();
+            case "rdfxml" -> new RDFXMLDocumentFormat();
+            case "turtle" -> new TurtleDocumentFormat();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    @Benchmark
+    public void saveOntology() throws Exception {
+        ontology.getOWLOntologyManager().saveOntology(ontology, documentFormat, OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Streams the axioms in OWL Functional Syntax.  The format parameter does not apply.
+     */
+    @Benchmark
+    public long streamFunctionalSyntax() throws Exception {
+        var writer = new FunctionalSyntaxAxiomWriter(Writer.nullWriter(), IRI.create(PREFIX), PREFIX);
+        axioms.forEach(writer::add);
+        writer.close();
+        return writer.getAxiomCount();
+    }
+}
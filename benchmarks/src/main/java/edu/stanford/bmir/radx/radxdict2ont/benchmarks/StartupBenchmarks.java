@@ -0,0 +1,110 @@
+package edu.stanford.bmir.radx.radxdict2ont.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time taken to launch the converter in a new JVM and run it to completion, with the scanning
+ * {@code RadxDict2ontApplication} and with {@code FastStartApplication}, with and without a class data sharing
+ * archive.  The archive is created by a training run before the measurements.
+ * <p>
+ * The converter is run from the plain jar that is built by the fast-start profile, which is found at
+ * {@code ../target/radx-dict2ont-0.0.1-SNAPSHOT.jar} unless the {@code startup.jar} system property is set.  With
+ * no input the converter starts, reports that a data dictionary URL is expected and exits.  Setting the
+ * {@code startup.input} system property to the URL of a small data dictionary measures a whole conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmarks {
+
+    private static final String PACKAGE = "edu.stanford.bmir.radx.radxdict2ont.";
+
+    @Param({"RadxDict2ontApplication", "FastStartApplication"})
+    public String application;
+
+    @Param({"false", "true"})
+    public boolean classDataSharing;
+
+    private Path workDirectory;
+
+    private List<String> command;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        var jar = Path.of(System.getProperty("startup.jar", "../target/radx-dict2ont-0.0.1-SNAPSHOT.jar"));
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Converter jar not found: " + jar.toAbsolutePath()
+                                                    + ".  Build it with mvn -Pfast-start package.");
+        }
+        workDirectory = Files.createTempDirectory("startup-benchmark");
+        var arguments = new ArrayList<String>();
+        arguments.add("-cp");
+        arguments.add(jar.toAbsolutePath().toString());
+        arguments.add(PACKAGE + application);
+        arguments.add("--radx.report=");
+        arguments.add("--radx.output.path=" + workDirectory.resolve("ont.owl"));
+        var input = System.getProperty("startup.input");
+        if (input != null) {
+            arguments.add(input);
+        }
+        command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (classDataSharing) {
+            var archive = workDirectory.resolve(application + ".jsa");
+            var training = new ArrayList<>(command);
+            training.add("-XX:ArchiveClassesAtExit=" + archive);
+            training.addAll(arguments);
+            launch(training);
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(arguments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(workDirectory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public int launch() throws IOException, InterruptedException {
+        return launch(command);
+    }
+
+    private static int launch(List<String> command) throws IOException, InterruptedException {
+        var process = new ProcessBuilder(command).redirectErrorStream(true)
+                                                 .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                                                 .start();
+        var exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Converter exited with " + exitCode + ": " + command);
+        }
+        return exitCode;
+    }
+}
@@ -0,0 +1,182 @@
+package edu.stanford.bmir.radx.radxdict2ont.benchmarks;
+
+import edu.stanford.bmir.radx.datadictionary.lib.ParseMode;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic RADx data dictionaries of a given size.  The generated records have the same shape as
+ * the records in the RADx global code book: about a third of them are enumerated, most are associated with
+ * one to three terms from the bundled ontologies, and a few are associated with terms that cannot be resolved.
+ * Generation is deterministic for a given record count and seed, so that benchmark runs are comparable.
+ * <p>
+ * The records are written as CSV in the RADx data dictionary format and parsed with the
+ * {@link RADxDataDictionaryParser}, so the parser's view of the records is the same as for a real
+ * data dictionary.
+ */
+public class SyntheticDataDictionary {
+
+    private static final String HEADER = "Id,Label,Description,Section,Cardinality,Terms,Datatype,Pattern,Unit,"
+            + "Enumeration,MissingValueCodes,Notes,Provenance,SeeAlso";
+
+    private static final List<String> SECTIONS = List.of("Demographics",
+                                                         "Symptoms",
+                                                         "Medical History",
+                                                         "Testing",
+                                                         "Vaccination",
+                                                         "Social Determinants Of Health",
+                                                         "Work And Occupation",
+                                                         "Household",
+                                                         "Substance Use",
+                                                         "Mental Health");
+
+    /**
+     * Terms from the bundled ontologies, including deep HP terms whose ancestor closures are large.
+     */
+    private static final List<String> TERMS = List.of("HP:0000118",
+                                                      "HP:0001250",
+                                                      "HP:0002133",
+                                                      "HP:0011097",
+                                                      "HP:0001945",
+                                                      "HP:0002315",
+                                                      "HP:0012735",
+                                                      "HP:0002014",
+                                                      "HP:0002018",
+                                                      "HP:0000708",
+                                                      "SYMP:0000614",
+                                                      "IAO:0000115",
+                                                      "PATO:0000001",
+                                                      "http://purl.obolibrary.org/obo/HP_0003326");
+
+    private static final List<String> UNRESOLVABLE_TERMS = List.of("LOINC:94500-6", "unspecified");
+
+    private SyntheticDataDictionary() {
+    }
+
+    /**
+     * Generates a data dictionary.
+     *
+     * @param recordCount The number of records, for example from 100 to 1,000,000.
+     * @param seed The seed for the random choices that are made for each record.
+     */
+    public static RADxDataDictionary generate(int recordCount, long seed) throws IOException {
+        var csv = new ByteArrayOutputStream(recordCount * 160);
+        try (var writer = new OutputStreamWriter(csv, StandardCharsets.UTF_8)) {
+            writeCsv(recordCount, seed, writer);
+        }
+        return parse(csv);
+    }
+
+    /**
+     * Generates a data dictionary that has one record, which is not enumerated, for each of the specified terms.
+     *
+     * @param terms The CURIEs or IRIs of the terms.
+     */
+    public static RADxDataDictionary generateForTerms(List<String> terms) throws IOException {
+        var csv = new ByteArrayOutputStream();
+        try (var writer = new OutputStreamWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.write("\r\n");
+            for (int i = 0; i < terms.size(); i++) {
+                writeRecord(writer, i, SECTIONS.get(0), terms.get(i), null, null);
+            }
+        }
+        return parse(csv);
+    }
+
+    /**
+     * Writes a data dictionary in the RADx data dictionary CSV format.
+     *
+     * @param recordCount The number of records.
+     * @param seed The seed for the random choices that are made for each record.
+     * @param writer The writer to write the CSV to.
+     */
+    public static void writeCsv(int recordCount, long seed, Writer writer) throws IOException {
+        var random = new Random(seed);
+        writer.write(HEADER);
+        writer.write("\r\n");
+        for (int i = 0; i < recordCount; i++) {
+            var section = SECTIONS.get(random.nextInt(SECTIONS.size()));
+            var terms = nextTerms(random);
+            var enumeration = random.nextInt(3) == 0 ? nextEnumeration(random) : null;
+            var seeAlso = random.nextInt(10) == 0 ? "https://example.org/elements/" + i : null;
+            writeRecord(writer, i, section, terms, enumeration, seeAlso);
+        }
+    }
+
+    private static void writeRecord(Writer writer,
+                                    int index,
+                                    String section,
+                                    String terms,
+                                    String enumeration,
+                                    String seeAlso) throws IOException {
+        writeCell(writer, "synthetic_element_" + index);
+        writeCell(writer, "Synthetic data element " + index);
+        writeCell(writer, "Synthetic description of data element " + index + ", for benchmarking");
+        writeCell(writer, section);
+        writeCell(writer, "single");
+        writeCell(writer, terms);
+        writeCell(writer, enumeration != null ? "integer" : "string");
+        writeCell(writer, "");
+        writeCell(writer, "");
+        writeCell(writer, enumeration != null ? enumeration : "");
+        writeCell(writer, "");
+        writeCell(writer, "");
+        writeCell(writer, "");
+        writer.write(seeAlso != null ? quote(seeAlso) : "");
+        writer.write("\r\n");
+    }
+
+    private static RADxDataDictionary parse(ByteArrayOutputStream csv) throws IOException {
+        try {
+            return new RADxDataDictionaryParser().parse(new ByteArrayInputStream(csv.toByteArray()), ParseMode.LAX);
+        } catch (Exception e) {
+            throw new IOException("Could not parse synthetic data dictionary", e);
+        }
+    }
+
+    private static String nextTerms(Random random) {
+        if (random.nextInt(50) == 0) {
+            return UNRESOLVABLE_TERMS.get(random.nextInt(UNRESOLVABLE_TERMS.size()));
+        }
+        var termCount = random.nextInt(4);
+        var terms = new StringBuilder();
+        for (int i = 0; i < termCount; i++) {
+            if (i > 0) {
+                terms.append(' ');
+            }
+            terms.append(TERMS.get(random.nextInt(TERMS.size())));
+        }
+        return terms.toString();
+    }
+
+    private static String nextEnumeration(Random random) {
+        var choiceCount = 2 + random.nextInt(4);
+        var enumeration = new StringBuilder();
+        for (int i = 0; i < choiceCount; i++) {
+            if (i > 0) {
+                enumeration.append(" | ");
+            }
+            enumeration.append('"').append(i).append("\"=[Choice ").append(i).append(']');
+        }
+        return enumeration.toString();
+    }
+
+    private static void writeCell(Writer writer, String value) throws IOException {
+        writer.write(quote(value));
+        writer.write(',');
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,49 @@
+package edu.stanford.bmir.radx.radxdict2ont.benchmarks;
+
+import edu.stanford.bmir.radx.datadictionary.lib.TermIdentifier;
+import edu.stanford.bmir.radx.radxdict2ont.CreateAxioms;
+import edu.stanford.bmir.radx.radxdict2ont.InMemoryOntCsvCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving term identifiers, in each of the forms that appear in data dictionaries, to IRIs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TermResolutionBenchmarks {
+
+    @Param({"HP:0002133", "NCIT:C25150", "http://purl.obolibrary.org/obo/HP_0003326", "unspecified"})
+    public String identifier;
+
+    private CreateAxioms createAxioms;
+
+    private TermIdentifier termIdentifier;
+
+    @Setup
+    public void setUp() {
+        createAxioms = new CreateAxioms(new OWLDataFactoryImpl(), new InMemoryOntCsvCache());
+        termIdentifier = new TermIdentifier(identifier);
+    }
+
+    @Benchmark
+    public String resolve() {
+        return createAxioms.resolveTerm(termIdentifier);
+    }
+}
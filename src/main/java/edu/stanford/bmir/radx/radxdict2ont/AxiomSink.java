@@ -0,0 +1,18 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+/**
+ * Receives the axioms that {@link CreateAxioms} generates for a data dictionary.  The same axiom may be
+ * passed to a sink more than once, so sinks are expected to ignore duplicates.
+ */
+@FunctionalInterface
+public interface AxiomSink {
+
+    /**
+     * Receives an axiom.
+     *
+     * @param axiom The axiom.
+     */
+    void add(OWLAxiom axiom);
+}
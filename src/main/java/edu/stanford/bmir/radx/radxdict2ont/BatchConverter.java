@@ -0,0 +1,300 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.stanford.bmir.radx.datadictionary.lib.ParseMode;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Converts many data dictionaries in one run.  The inputs are converted concurrently, on a bounded pool of
+ * worker threads, by a single {@link Conversion}, so that they share one terms cache and one data factory.
+ * Each input is written to its own output in an output directory.  A failure to read, parse or convert an
+ * input is recorded in the summary and does not affect the other inputs, and the files that were written for
+ * the input are deleted.
+ */
+public class BatchConverter {
+
+    /**
+     * The name of the summary that is written to the output directory.
+     */
+    public static final String SUMMARY_FILE_NAME = "summary.json";
+
+    private static final String OUTPUT_EXTENSION = ".owl";
+
+    private final RADxDataDictionaryParser parser;
+
+    private final Conversion conversion;
+
+    private final int parallelism;
+
+    private final Function<Path, List<Path>> outputFiles;
+
+    /**
+     * @param parser The parser that is used to parse each input.
+     * @param conversion The conversion that writes the ontology for each parsed input.
+     * @param parallelism The maximum number of inputs that are converted at the same time.
+     */
+    public BatchConverter(RADxDataDictionaryParser parser, Conversion conversion, int parallelism) {
+        this(parser, conversion, parallelism, List::of);
+    }
+
+    /**
+     * @param parser The parser that is used to parse each input.
+     * @param conversion The conversion that writes the ontology for each parsed input.
+     * @param parallelism The maximum number of inputs that are converted at the same time.
+     * @param outputFiles Gets the paths of the files that the conversion writes for an output path, such as one
+     *                    file per output format.  These are reported in the summary if the conversion succeeds,
+     *                    and deleted if it fails.
+     */
+    public BatchConverter(RADxDataDictionaryParser parser,
+                          Conversion conversion,
+                          int parallelism,
+                          Function<Path, List<Path>> outputFiles) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parser = parser;
+        this.conversion = conversion;
+        this.parallelism = parallelism;
+        this.outputFiles = outputFiles;
+    }
+
+    /**
+     * Reads the inputs that are listed by a manifest or contained in a directory.  A manifest lists one input
+     * per line, as a URL or as a file path that is relative to the manifest.  Blank lines and lines that
+     * start with '#' are ignored.  A directory contributes each of its CSV files, in name order.
+     *
+     * @param manifestOrDirectory The path of a manifest or a directory.
+     * @return The URLs of the inputs.
+     * @throws IOException If the manifest or directory could not be read.
+     */
+    public static List<URL> readInputs(Path manifestOrDirectory) throws IOException {
+        var inputs = new ArrayList<URL>();
+        if (Files.isDirectory(manifestOrDirectory)) {
+            try (Stream<Path> files = Files.list(manifestOrDirectory)) {
+                for (var file : files.filter(f -> f.getFileName().toString().toLowerCase().endsWith(".csv"))
+                                     .sorted()
+                                     .toList()) {
+                    inputs.add(file.toUri().toURL());
+                }
+            }
+            return inputs;
+        }
+        var base = manifestOrDirectory.toAbsolutePath().getParent();
+        for (var line : Files.readAllLines(manifestOrDirectory)) {
+            var entry = line.strip();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            if (entry.contains("://")) {
+                inputs.add(URI.create(entry).toURL());
+            }
+            else {
+                inputs.add(base.resolve(entry).toUri().toURL());
+            }
+        }
+        return inputs;
+    }
+
+    /**
+     * Converts the specified inputs and writes a summary of the results to {@value #SUMMARY_FILE_NAME} in the
+     * output directory.
+     *
+     * @param inputs The inputs to convert.
+     * @param outputDirectory The directory that outputs are written to.
+     * @return The summary.
+     * @throws IOException If the output directory or the summary could not be written.
+     */
+    public BatchSummary convert(List<URL> inputs, Path outputDirectory) throws IOException {
+        Files.createDirectories(outputDirectory);
+        var outputs = getOutputPaths(inputs, outputDirectory);
+        var threadCount = Math.min(parallelism, Math.max(1, inputs.size()));
+        var threadCounter = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(threadCount, r -> {
+            var thread = new Thread(r, "batch-converter-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        var start = System.nanoTime();
+        var results = new ArrayList<InputResult>(inputs.size());
+        try {
+            var futures = new ArrayList<Future<InputResult>>(inputs.size());
+            for (int i = 0; i < inputs.size(); i++) {
+                var input = inputs.get(i);
+                var output = outputs.get(i);
+                futures.add(executor.submit(() -> convert(input, output)));
+            }
+            for (var future : futures) {
+                results.add(await(future));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        var failed = (int) results.stream().filter(r -> !r.succeeded()).count();
+        var summary = new BatchSummary(inputs.size() - failed,
+                                       failed,
+                                       (System.nanoTime() - start) / 1_000_000,
+                                       results);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                          .writeValue(outputDirectory.resolve(SUMMARY_FILE_NAME).toFile(), summary);
+        return summary;
+    }
+
+    private InputResult convert(URL input, Path output) {
+        var start = System.nanoTime();
+        try {
+            byte[] bytes;
+            try (var in = input.openStream()) {
+                bytes = in.readAllBytes();
+            }
+            var dataDictionary = parser.parse(new ByteArrayInputStream(bytes), ParseMode.LAX);
+            conversion.convert(dataDictionary, output);
+            return new InputResult(input.toString(),
+                                   outputFiles.apply(output).stream().map(Path::toString).toList(),
+                                   true,
+                                   dataDictionary.records().size(),
+                                   null,
+                                   (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            deletePartialOutput(output);
+            return new InputResult(input.toString(),
+                                   List.of(),
+                                   false,
+                                   0,
+                                   e.getClass().getName() + ": " + e.getMessage(),
+                                   (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private void deletePartialOutput(Path output) {
+        var files = new LinkedHashSet<Path>();
+        files.add(output);
+        files.addAll(outputFiles.apply(output));
+        for (var file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // The failure is already recorded against the input
+            }
+        }
+    }
+
+    private static InputResult await(Future<InputResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while converting data dictionaries", e);
+        } catch (ExecutionException e) {
+            // Conversions catch their own exceptions, so only errors reach here
+            var cause = e.getCause();
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Names each output after the last path segment of its input, without the extension.  Inputs whose
+     * names are empty or clash with an earlier input are numbered by their position in the batch.  Names are
+     * compared without extensions, because the files that are written for an output share its name and differ
+     * only in their extensions.  A numbered name never takes the name of another input, or of the summary.
+     */
+    private static List<Path> getOutputPaths(List<URL> inputs, Path outputDirectory) {
+        var names = inputs.stream().map(BatchConverter::getBaseName).toList();
+        var reserved = new HashSet<>(names);
+        var used = new HashSet<String>();
+        used.add(getBaseName(SUMMARY_FILE_NAME));
+        var outputs = new ArrayList<Path>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            var name = names.get(i);
+            if (name.isEmpty() || !used.add(name)) {
+                var prefix = name.isEmpty() ? "input" : name;
+                var number = i + 1;
+                do {
+                    name = prefix + "-" + number++;
+                } while (reserved.contains(name) || !used.add(name));
+            }
+            outputs.add(outputDirectory.resolve(name + OUTPUT_EXTENSION));
+        }
+        return outputs;
+    }
+
+    private static String getBaseName(URL input) {
+        var path = input.getPath();
+        return getBaseName(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    private static String getBaseName(String fileName) {
+        var name = fileName;
+        var dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Writes the ontology for a parsed data dictionary.  Conversions are invoked concurrently for different
+     * inputs.
+     */
+    @FunctionalInterface
+    public interface Conversion {
+
+        /**
+         * @param dataDictionary The data dictionary.
+         * @param output The path that the ontology is written to.
+         */
+        void convert(RADxDataDictionary dataDictionary, Path output) throws Exception;
+    }
+
+    /**
+     * The result of converting one input.
+     *
+     * @param input The URL of the input.
+     * @param outputs The paths of the files that were written for the input, or none if the conversion failed.
+     * @param succeeded true if the output was written.
+     * @param records The number of records in the input, or zero if the input could not be parsed.
+     * @param error A description of the failure, or null if the conversion succeeded.
+     * @param durationMillis The time taken to convert the input.
+     */
+    public record InputResult(String input,
+                              List<String> outputs,
+                              boolean succeeded,
+                              int records,
+                              String error,
+                              long durationMillis) {
+
+    }
+
+    /**
+     * The results of a batch.
+     *
+     * @param succeeded The number of inputs that were converted.
+     * @param failed The number of inputs that could not be converted.
+     * @param durationMillis The time taken to convert the batch.
+     * @param inputs The result for each input, in the order of the inputs.
+     */
+    public record BatchSummary(int succeeded, int failed, long durationMillis, List<InputResult> inputs) {
+
+    }
+}
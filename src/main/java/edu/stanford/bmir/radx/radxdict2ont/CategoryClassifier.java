@@ -0,0 +1,125 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+
+/**
+ * Classifies data elements under the categories that are defined in {@code definitions.ofn}.  Each category is
+ * defined by one or more axioms of the form
+ * <pre>
+ * EquivalentClasses(C ObjectIntersectionOf(DataElement ObjectSomeValuesFrom(isAssociatedWith T)))
+ * </pre>
+ * and every data element is a DataElement, so a data element falls under the category C exactly when it is
+ * associated with the target term T or with a descendant of T.  Instead of running a reasoner over the whole
+ * ontology, {@link CreateAxioms} gives each external term a bitset of the categories whose targets are the term
+ * or one of its ancestors, which is the union of the term's own categories and the bitsets of its parents.  A
+ * data element then falls under the union of the bitsets of the terms that it is associated with.
+ * <p>
+ * Axioms in the definitions that do not follow this pattern are ignored.  Instances are immutable.
+ */
+public class CategoryClassifier {
+
+    private static final OWLClass DATA_ELEMENT = Class(IRI.create(RadxVocabulary.PREFIX + "DataElement"));
+
+    private static final IRI IS_ASSOCIATED_WITH = IRI.create(RadxVocabulary.PREFIX + "isAssociatedWith");
+
+    private final List<OWLClass> categories = new ArrayList<>();
+
+    private final Map<IRI, BitSet> targets = new HashMap<>();
+
+    /**
+     * @param definitions The axioms that define the categories.
+     */
+    public CategoryClassifier(Collection<OWLAxiom> definitions) {
+        var indexes = new HashMap<OWLClass, Integer>();
+        for (var axiom : definitions) {
+            if (!(axiom instanceof OWLEquivalentClassesAxiom equivalentClassesAxiom)) {
+                continue;
+            }
+            var namedClasses = equivalentClassesAxiom.getNamedClasses();
+            if (namedClasses.size() != 1) {
+                continue;
+            }
+            var category = namedClasses.iterator().next();
+            for (var expression : equivalentClassesAxiom.getClassExpressionsMinus(category)) {
+                var target = getTarget(expression);
+                if (target != null) {
+                    var index = indexes.computeIfAbsent(category, c -> {
+                        categories.add(c);
+                        return categories.size() - 1;
+                    });
+                    targets.computeIfAbsent(target, t -> new BitSet()).set(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a classifier for the categories that are defined in the bundled {@code definitions.ofn}.
+     */
+    public static CategoryClassifier loadDefault() throws OWLOntologyCreationException {
+        return new CategoryClassifier(CreateAxioms.loadDefinitionAxioms().getAxioms());
+    }
+
+    /**
+     * Creates a classifier without categories, which classifies nothing.
+     */
+    public static CategoryClassifier none() {
+        return new CategoryClassifier(List.of());
+    }
+
+    /**
+     * @return The categories, in the order of their bits.
+     */
+    public List<OWLClass> getCategories() {
+        return Collections.unmodifiableList(categories);
+    }
+
+    /**
+     * Gets the categories that a term is the target of, ignoring the term's ancestors.
+     *
+     * @param termIri The IRI of the term.
+     * @return A new bitset of the indexes of the categories.
+     */
+    BitSet getTargetCategories(IRI termIri) {
+        var bits = targets.get(termIri);
+        return bits != null ? (BitSet) bits.clone() : new BitSet();
+    }
+
+    /**
+     * Gets the target of an expression of the form
+     * {@code ObjectIntersectionOf(DataElement ObjectSomeValuesFrom(isAssociatedWith T))}.
+     *
+     * @return The IRI of T, or null if the expression does not have this form.
+     */
+    private static IRI getTarget(OWLClassExpression expression) {
+        var conjuncts = expression.asConjunctSet();
+        if (conjuncts.size() != 2 || !conjuncts.contains(DATA_ELEMENT)) {
+            return null;
+        }
+        for (var conjunct : conjuncts) {
+            if (conjunct instanceof OWLObjectSomeValuesFrom someValuesFrom
+                    && !someValuesFrom.getProperty().isAnonymous()
+                    && someValuesFrom.getProperty().asOWLObjectProperty().getIRI().equals(IS_ASSOCIATED_WITH)
+                    && !someValuesFrom.getFiller().isAnonymous()) {
+                return someValuesFrom.getFiller().asOWLClass().getIRI();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,347 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link TextStore} that keeps values in compressed blocks in a temporary file, so that they take no heap
+ * space until they are looked up.
+ * <p>
+ * Values are appended to an open block on the heap.  Once the block reaches {@value #BLOCK_SIZE} bytes it is
+ * deflated and written to the file.  Reading a value inflates its block, and recently inflated blocks are kept
+ * in a {@link BlockCache}, which may be shared by several stores so that they have one memory budget between
+ * them.  Terms from the same part of an export tend to be looked up together, so a cached block often serves
+ * several lookups.
+ * <p>
+ * {@link #finish()} writes the open block to the file and releases the compressor, after which no more values
+ * can be added.  The temporary file is deleted as soon as it is opened where the platform allows, and otherwise when the
+ * store is closed or the JVM exits.
+ */
+public class CompressedTextStore implements TextStore {
+
+    private static final int BLOCK_SIZE = 32 * 1024;
+
+    private final BlockCache blockCache;
+
+    private FileChannel file;
+
+    private long fileSize;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+
+    private boolean finished;
+
+    /**
+     * The location of each entry: the index of its block in the high 32 bits and its offset in the block's
+     * uncompressed bytes in the low 32 bits.
+     */
+    private long[] locations = new long[1024];
+
+    private int size;
+
+    /**
+     * The file offset, compressed length and uncompressed length of each block that has been written.
+     */
+    private long[] blockOffsets = new long[64];
+
+    private int[] blockCompressedLengths = new int[64];
+
+    private int[] blockLengths = new int[64];
+
+    private int blockCount;
+
+    private byte[] openBlock = new byte[BLOCK_SIZE + 1024];
+
+    private int openBlockLength;
+
+    /**
+     * @param blockCache The cache that inflated blocks are kept in.
+     */
+    public CompressedTextStore(BlockCache blockCache) {
+        this.blockCache = blockCache;
+    }
+
+    @Override
+    public int add(String[] values) {
+        if (finished) {
+            throw new IllegalStateException("No more values can be added once the store is finished");
+        }
+        if (openBlockLength >= BLOCK_SIZE) {
+            writeOpenBlock();
+        }
+        if (size == locations.length) {
+            locations = Arrays.copyOf(locations, size * 2);
+        }
+        locations[size] = ((long) blockCount << 32) | openBlockLength;
+        writeVarInt(values.length);
+        for (var value : values) {
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensureOpenBlockCapacity(bytes.length);
+            System.arraycopy(bytes, 0, openBlock, openBlockLength, bytes.length);
+            openBlockLength += bytes.length;
+        }
+        return size++;
+    }
+
+    @Override
+    public String[] get(int entry) {
+        var location = locations[entry];
+        var block = (int) (location >>> 32);
+        var bytes = block == blockCount ? openBlock : getBlock(block);
+        var position = new int[]{(int) location};
+        var values = new String[readVarInt(bytes, position)];
+        for (int i = 0; i < values.length; i++) {
+            var length = readVarInt(bytes, position);
+            values[i] = new String(bytes, position[0], length, StandardCharsets.UTF_8);
+            position[0] += length;
+        }
+        return values;
+    }
+
+    /**
+     * @return The number of compressed bytes that have been written to the temporary file.
+     */
+    public long getCompressedSize() {
+        return fileSize;
+    }
+
+    @Override
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        if (openBlockLength > 0) {
+            writeOpenBlock();
+        }
+        finished = true;
+        openBlock = new byte[0];
+        deflater.end();
+    }
+
+    /**
+     * Releases the deflater and the backing file, and evicts the inflated blocks of this store from the block
+     * cache, which may outlive it.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        deflater.end();
+        blockCache.remove(this);
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private byte[] getBlock(int block) {
+        var cached = blockCache.get(this, block);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            var compressed = ByteBuffer.allocate(blockCompressedLengths[block]);
+            var position = blockOffsets[block];
+            while (compressed.hasRemaining()) {
+                var read = file.read(compressed, position + compressed.position());
+                if (read == -1) {
+                    throw new IOException("Unexpected end of compressed text block " + block);
+                }
+            }
+            var inflater = new Inflater(true);
+            try {
+                inflater.setInput(compressed.array());
+                var bytes = new byte[blockLengths[block]];
+                var length = 0;
+                while (length < bytes.length) {
+                    var inflated = inflater.inflate(bytes, length, bytes.length - length);
+                    if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new IOException("Truncated compressed text block " + block);
+                    }
+                    length += inflated;
+                }
+                blockCache.put(this, block, bytes);
+                return bytes;
+            } finally {
+                inflater.end();
+            }
+        } catch (IOException | DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Could not read compressed text block " + block, e));
+        }
+    }
+
+    private void writeOpenBlock() {
+        try {
+            if (file == null) {
+                var path = Files.createTempFile("radx-text-", ".blocks");
+                file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    // Platforms that cannot delete an open file delete it at exit instead
+                    path.toFile().deleteOnExit();
+                }
+            }
+            deflater.reset();
+            deflater.setInput(openBlock, 0, openBlockLength);
+            deflater.finish();
+            var compressed = new byte[openBlockLength + 64];
+            var compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+            var buffer = ByteBuffer.wrap(compressed, 0, compressedLength);
+            while (buffer.hasRemaining()) {
+                file.write(buffer, fileSize + buffer.position());
+            }
+            if (blockCount == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+                blockCompressedLengths = Arrays.copyOf(blockCompressedLengths, blockCount * 2);
+                blockLengths = Arrays.copyOf(blockLengths, blockCount * 2);
+            }
+            blockOffsets[blockCount] = fileSize;
+            blockCompressedLengths[blockCount] = compressedLength;
+            blockLengths[blockCount] = openBlockLength;
+            blockCount++;
+            fileSize += compressedLength;
+            openBlockLength = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeVarInt(int value) {
+        ensureOpenBlockCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            openBlock[openBlockLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        openBlock[openBlockLength++] = (byte) value;
+    }
+
+    private void ensureOpenBlockCapacity(int length) {
+        if (openBlockLength + length > openBlock.length) {
+            openBlock = Arrays.copyOf(openBlock, Math.max(openBlock.length * 2, openBlockLength + length));
+        }
+    }
+
+    private static int readVarInt(byte[] bytes, int[] position) {
+        var value = 0;
+        var shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * A least recently used cache of inflated blocks that is bounded by their total size.  A cache may be shared
+     * by several stores.
+     */
+    public static class BlockCache {
+
+        private final long capacityBytes;
+
+        private final LinkedHashMap<BlockKey, byte[]> blocks = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long sizeBytes;
+
+        private long hits;
+
+        private long misses;
+
+        /**
+         * @param capacityBytes The maximum total size of the inflated blocks that are kept.
+         */
+        public BlockCache(long capacityBytes) {
+            this.capacityBytes = capacityBytes;
+        }
+
+        synchronized byte[] get(CompressedTextStore store, int block) {
+            var bytes = blocks.get(new BlockKey(store, block));
+            if (bytes != null) {
+                hits++;
+            }
+            else {
+                misses++;
+            }
+            return bytes;
+        }
+
+        synchronized void put(CompressedTextStore store, int block, byte[] bytes) {
+            if (bytes.length > capacityBytes) {
+                return;
+            }
+            var previous = blocks.put(new BlockKey(store, block), bytes);
+            if (previous != null) {
+                sizeBytes -= previous.length;
+            }
+            sizeBytes += bytes.length;
+            var iterator = blocks.values().iterator();
+            while (sizeBytes > capacityBytes && iterator.hasNext()) {
+                sizeBytes -= iterator.next().length;
+                iterator.remove();
+            }
+        }
+
+        /**
+         * Evicts the inflated blocks of a store.
+         *
+         * @param store The store.
+         */
+        synchronized void remove(CompressedTextStore store) {
+            var iterator = blocks.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (entry.getKey().store() == store) {
+                    sizeBytes -= entry.getValue().length;
+                    iterator.remove();
+                }
+            }
+        }
+
+        /**
+         * @return The number of block lookups that found an inflated block.
+         */
+        public synchronized long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return The number of block lookups that had to inflate the block.
+         */
+        public synchronized long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return The total size of the inflated blocks that are kept.
+         */
+        public synchronized long getSizeBytes() {
+            return sizeBytes;
+        }
+    }
+
+    private record BlockKey(CompressedTextStore store, int block) {
+
+    }
+}
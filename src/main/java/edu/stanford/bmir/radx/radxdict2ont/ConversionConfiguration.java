@@ -0,0 +1,81 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The beans that a conversion depends on, other than the components of the data dictionary library and
+ * {@link CreateAxioms}.  These are found by component scanning in {@link RadxDict2ontApplication}, and are
+ * imported explicitly by {@link FastStartApplication}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ConversionConfiguration {
+
+    @Lazy
+    @Bean(destroyMethod = "close")
+    OntCsvCache getOntCsvCache(@Value("${radx.cache.snapshot:}") String snapshot,
+                               @Value("${radx.cache.compressed-text:false}") boolean compressedText,
+                               @Value("${radx.cache.block-cache-bytes:16777216}") long blockCacheBytes,
+                               GenerationMetrics metrics) throws IOException {
+        OntCsvCache cache;
+        if (!snapshot.isEmpty() && Files.isRegularFile(Path.of(snapshot))) {
+            cache = MappedOntCsvCache.open(Path.of(snapshot));
+        }
+        else {
+            Supplier<TextStore> textStores = TextStore::onHeap;
+            if (compressedText) {
+                var blockCache = new CompressedTextStore.BlockCache(blockCacheBytes);
+                textStores = () -> new CompressedTextStore(blockCache);
+            }
+            cache = new LazyOntCsvCache(List.of(OntCsvSource.values()), newOntCsvCacheLoader(metrics, textStores));
+        }
+        return new MeteredOntCsvCache(cache, metrics);
+    }
+
+    static OntCsvCacheLoader newOntCsvCacheLoader(GenerationMetrics metrics, Supplier<TextStore> textStores) {
+        return new OntCsvCacheLoader(Runtime.getRuntime().availableProcessors(), metrics, textStores);
+    }
+
+    @Bean
+    CurieResolver curieResolver(@Value("${radx.curie.prefixes:}") String prefixes) throws IOException {
+        var registry = CuriePrefixRegistry.loadDefault();
+        if (!prefixes.isEmpty()) {
+            registry = registry.withOverrides(Path.of(prefixes));
+        }
+        return new CurieResolver(registry);
+    }
+
+    @Bean
+    CategoryClassifier categoryClassifier(@Value("${radx.output.classify:false}") boolean classify)
+            throws OWLOntologyCreationException {
+        return classify ? CategoryClassifier.loadDefault() : CategoryClassifier.none();
+    }
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    GenerationMetrics generationMetrics(MeterRegistry meterRegistry) {
+        return new GenerationMetrics(meterRegistry);
+    }
+
+    @Bean
+    OWLDataFactory dataFactory() {
+        return new OWLDataFactoryImpl();
+    }
+}
@@ -0,0 +1,89 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Converts data dictionaries that are posted as CSV to ontologies in OWL Functional Syntax.  The endpoint is
+ * served when the application is started with {@code --server}.
+ * <p>
+ * Responses carry the SHA-256 hash of the data dictionary as their ETag, and an {@code X-Cache} header that
+ * says whether the ontology came from the result cache.  A request that is rejected because the server is at
+ * capacity receives a 503 response with a Retry-After header.  A request body that cannot be read or parsed
+ * as a data dictionary receives a 400 response, and a data dictionary that cannot be converted receives a 422
+ * response.  Failures on the server side, such as a failure to load the terms cache, receive a 500 response.
+ */
+@RestController
+public class ConversionController {
+
+    /**
+     * The media type of OWL Functional Syntax documents.
+     */
+    public static final String OWL_FUNCTIONAL_SYNTAX = "text/owl-functional";
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final ConversionService conversionService;
+
+    private final int maxRequestBytes;
+
+    public ConversionController(ConversionService conversionService,
+                                @Value("${radx.server.max-request-bytes:52428800}") int maxRequestBytes) {
+        this.conversionService = conversionService;
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    @PostMapping(path = "/convert", produces = OWL_FUNCTIONAL_SYNTAX)
+    public ResponseEntity<?> convert(InputStream body) throws Exception {
+        byte[] dataDictionary;
+        try {
+            dataDictionary = body.readNBytes(maxRequestBytes + 1);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        }
+        if (dataDictionary.length > maxRequestBytes) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        var conversion = conversionService.convert(dataDictionary);
+        var ontology = conversion.ontology();
+        return ResponseEntity.ok()
+                             .contentType(MediaType.parseMediaType(OWL_FUNCTIONAL_SYNTAX + ";charset=UTF-8"))
+                             .contentLength(ontology.length)
+                             .eTag(conversion.key())
+                             .header("X-Cache", conversion.cached() ? "HIT" : "MISS")
+                             .body(ontology);
+    }
+
+    @ExceptionHandler(ConversionService.BusyException.class)
+    ResponseEntity<String> handleBusy(ConversionService.BusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                             .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                             .contentType(MediaType.TEXT_PLAIN)
+                             .body(e.getMessage());
+    }
+
+    @ExceptionHandler(ConversionService.InvalidDataDictionaryException.class)
+    ResponseEntity<String> handleInvalidDataDictionary(ConversionService.InvalidDataDictionaryException e) {
+        return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+    @ExceptionHandler(ConversionService.ConversionException.class)
+    ResponseEntity<String> handleConversionFailure(ConversionService.ConversionException e) {
+        return ResponseEntity.unprocessableEntity().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+    @ExceptionHandler(UncheckedIOException.class)
+    ResponseEntity<String> handleServerIOFailure(UncheckedIOException e) {
+        return ResponseEntity.internalServerError().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+}
@@ -0,0 +1,328 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.ParseMode;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryParser;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs a conversion, a batch of conversions or another command-line task, as selected by the program arguments.
+ */
+@Component
+public class ConversionRunner implements ApplicationRunner {
+
+    static final String SERVER_OPTION = "server";
+
+    private static final String WRITE_CACHE_SNAPSHOT_OPTION = "write-cache-snapshot";
+
+    private static final String BATCH_OPTION = "batch";
+
+    private static final String OUTPUT_DIRECTORY_OPTION = "output-dir";
+
+    private static final String SUGGEST_TERMS_OPTION = "suggest-terms";
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Value("${radx.parallelism:1}")
+    private int parallelism;
+
+    @Value("${radx.output.streaming:false}")
+    private boolean streaming;
+
+    @Value("${radx.output.incremental:false}")
+    private boolean incremental;
+
+    @Value("${radx.output.path:/tmp/ont.owl}")
+    private String outputPath;
+
+    @Value("${radx.output.formats:rdf-xml}")
+    private String outputFormats;
+
+    @Value("${radx.output.compression:none}")
+    private String outputCompression;
+
+    @Value("${radx.report:/tmp/ont.owl.report.json}")
+    private String report;
+
+    @Value("${radx.batch.parallelism:0}")
+    private int batchParallelism;
+
+    @Value("${radx.suggest.limit:5}")
+    private int suggestionLimit;
+
+    @Value("${radx.suggest.min-score:0.3}")
+    private double suggestionMinScore;
+
+    @Value("${radx.run-cache.directory:}")
+    private String runCacheDirectory;
+
+    @Value("${radx.output.classify:false}")
+    private boolean classify;
+
+    @Value("${radx.curie.prefixes:}")
+    private String curiePrefixes;
+
+    @Value("${radx.cache.snapshot:}")
+    private String snapshot;
+
+    @Override
+    public void run(ApplicationArguments arguments) throws Exception {
+        if (arguments.containsOption(SERVER_OPTION)) {
+            // Conversions are served by ConversionController
+            return;
+        }
+        if (streaming && hasSerializerSettings()) {
+            System.err.println("--radx.output.formats and --radx.output.compression cannot be used with --radx.output.streaming, "
+                                       + "which always writes uncompressed OWL Functional Syntax");
+            return;
+        }
+        if (incremental && hasSerializerSettings()) {
+            System.err.println("--radx.output.formats and --radx.output.compression cannot be used with --radx.output.incremental, "
+                                       + "which always writes uncompressed OWL Functional Syntax");
+            return;
+        }
+        var metrics = context.getBean(GenerationMetrics.class);
+        if (arguments.containsOption(WRITE_CACHE_SNAPSHOT_OPTION)) {
+            writeCacheSnapshot(arguments.getOptionValues(WRITE_CACHE_SNAPSHOT_OPTION), metrics);
+            return;
+        }
+        if (arguments.containsOption(BATCH_OPTION)) {
+            runBatch(arguments, metrics);
+            return;
+        }
+        var args = arguments.getNonOptionArgs();
+        if(args.size() != 1) {
+            System.err.println("Expected a single program argument that is a URL pointing to a copy of the RADx Global Code Book");
+            return;
+        }
+        var filePath = new URL(args.get(0));
+        var runCache = runCacheDirectory.isEmpty() ? null : RunCache.forCurrentBuild(Path.of(runCacheDirectory))
+                                                                    .orElse(null);
+        if (!runCacheDirectory.isEmpty() && runCache == null) {
+            System.err.println("Not using the run cache, because the build of this tool cannot be identified");
+        }
+        var fetched = metrics.timeStage("download", () -> {
+            if (runCache != null) {
+                return runCache.fetch(filePath);
+            }
+            try (var in = filePath.openStream()) {
+                return new RunCache.Fetched(in.readAllBytes(), null, false);
+            }
+        });
+        String generationKey = null;
+        List<Path> outputs = null;
+        if (runCache != null && !incremental && !arguments.containsOption(SUGGEST_TERMS_OPTION)) {
+            generationKey = runCache.getGenerationKey(fetched.contentHash(), getOutputSettings());
+            outputs = getOutputPaths(Path.of(outputPath));
+            if (runCache.restore(generationKey, outputs)) {
+                System.err.println("Reused the ontology that was generated from the same inputs by an earlier run");
+                if (!report.isEmpty()) {
+                    metrics.writeReport(Path.of(report));
+                }
+                return;
+            }
+        }
+        var createAxioms = context.getBean(CreateAxioms.class);
+        var parser = context.getBean(RADxDataDictionaryParser.class);
+        var dataDictionary = metrics.timeStage("parse",
+                                               () -> parser.parse(new ByteArrayInputStream(fetched.bytes()), ParseMode.LAX));
+        if (arguments.containsOption(SUGGEST_TERMS_OPTION)) {
+            suggestTerms(dataDictionary, arguments.getOptionValues(SUGGEST_TERMS_OPTION), metrics);
+            return;
+        }
+        metrics.timeStage("cache-load", () -> {
+            createAxioms.prefetchTerms(dataDictionary.records());
+            return null;
+        });
+        try {
+            generate(createAxioms, dataDictionary, metrics, Path.of(outputPath));
+            if (generationKey != null) {
+                runCache.store(generationKey, outputs);
+            }
+        } finally {
+            if (!report.isEmpty()) {
+                metrics.writeReport(Path.of(report));
+            }
+        }
+    }
+
+    /**
+     * Converts each of the data dictionaries that are listed by a manifest, or contained in a directory, to
+     * an ontology in an output directory.  The conversions share the terms cache and run concurrently.
+     */
+    private void runBatch(ApplicationArguments arguments, GenerationMetrics metrics) throws Exception {
+        var manifests = arguments.getOptionValues(BATCH_OPTION);
+        var outputDirectories = arguments.getOptionValues(OUTPUT_DIRECTORY_OPTION);
+        if (manifests.size() != 1 || outputDirectories == null || outputDirectories.size() != 1) {
+            System.err.println("Expected --" + BATCH_OPTION + "=<manifest or directory> --" + OUTPUT_DIRECTORY_OPTION + "=<directory>");
+            return;
+        }
+        var createAxioms = context.getBean(CreateAxioms.class);
+        var parser = context.getBean(RADxDataDictionaryParser.class);
+        var threads = batchParallelism > 0 ? batchParallelism : Runtime.getRuntime().availableProcessors();
+        var converter = new BatchConverter(parser,
+                                           (dataDictionary, output) -> generate(createAxioms, dataDictionary, metrics, output),
+                                           threads,
+                                           this::getOutputPaths);
+        var outputDirectory = Path.of(outputDirectories.get(0));
+        try {
+            var summary = converter.convert(BatchConverter.readInputs(Path.of(manifests.get(0))), outputDirectory);
+            System.err.printf("Converted %d data dictionaries, %d failed%n", summary.succeeded(), summary.failed());
+            summary.inputs()
+                   .stream()
+                   .filter(result -> !result.succeeded())
+                   .forEach(result -> System.err.println(result.input() + ": " + result.error()));
+        } finally {
+            if (!report.isEmpty()) {
+                metrics.writeReport(Path.of(report));
+            }
+        }
+    }
+
+    private void generate(CreateAxioms createAxioms,
+                          RADxDataDictionary dataDictionary,
+                          GenerationMetrics metrics,
+                          Path output) throws Exception {
+        if (incremental) {
+            var generator = new IncrementalOntologyGenerator(createAxioms,
+                                                             IRI.create("https://bmir-radx.github.io/"),
+                                                             getGenerationSettings());
+            var diff = metrics.timeStage("generate", () -> generator.generate(dataDictionary, output));
+            System.err.printf("Added %d, changed %d and removed %d records%n",
+                              diff.addedRecords().size(),
+                              diff.changedRecords().size(),
+                              diff.removedRecords().size());
+            return;
+        }
+        if (streaming) {
+            var ontologyIri = IRI.create("https://bmir-radx.github.io/");
+            try (var out = Files.newBufferedWriter(output);
+                 var writer = new FunctionalSyntaxAxiomWriter(out, ontologyIri, ontologyIri.toString())) {
+                metrics.timeStage("generate", () -> {
+                    createAxioms.createAxioms(dataDictionary, parallelism, metrics.recordingAxioms(writer));
+                    return null;
+                });
+            }
+            return;
+        }
+        var serializer = createSerializer();
+        var axioms = metrics.timeStage("generate", () -> createAxioms.createAxioms(dataDictionary, parallelism));
+        metrics.recordAxioms(axioms);
+        metrics.timeStage("save", () -> {
+            var manager = OWLManager.createOWLOntologyManager();
+            var ontology = manager.createOntology(axioms, IRI.create("https://bmir-radx.github.io/"));
+            return serializer.write(ontology, output);
+        });
+    }
+
+    /**
+     * Determines whether the output formats or compression are set, rather than left at their defaults.
+     */
+    private boolean hasSerializerSettings() {
+        var environment = context.getEnvironment();
+        return environment.containsProperty("radx.output.formats")
+                || environment.containsProperty("radx.output.compression");
+    }
+
+    /**
+     * Gets the paths of the files that a conversion to an output path writes.
+     */
+    private List<Path> getOutputPaths(Path output) {
+        if (incremental) {
+            return IncrementalOntologyGenerator.getOutputPaths(output);
+        }
+        return streaming ? List.of(output) : createSerializer().getOutputPaths(output);
+    }
+
+    /**
+     * Describes the settings that affect the generated axioms, for the generation keys of incremental
+     * generation and the run cache.  The terms snapshot and the prefix overrides are identified by the hashes of
+     * their bytes.
+     */
+    private List<String> getGenerationSettings() throws IOException {
+        var settings = new ArrayList<String>();
+        settings.add("classify=" + classify);
+        settings.add("snapshot=" + (snapshot.isEmpty() ? null : Fingerprints.hashFile(Path.of(snapshot))));
+        settings.add("prefixes=" + (curiePrefixes.isEmpty() ? null : Fingerprints.hashFile(Path.of(curiePrefixes))));
+        return settings;
+    }
+
+    /**
+     * Describes the settings that affect the content of the generated files, for the generation key of the
+     * run cache.
+     */
+    private List<String> getOutputSettings() throws IOException {
+        var settings = getGenerationSettings();
+        settings.add("formats=" + (streaming ? "streaming" : outputFormats));
+        settings.add("compression=" + (streaming ? OutputCompression.NONE.name() : outputCompression));
+        return settings;
+    }
+
+    /**
+     * Creates the serializer for the formats and compression that are configured by the radx.output.formats
+     * and radx.output.compression properties.
+     */
+    private OntologySerializer createSerializer() {
+        var formats = Arrays.stream(outputFormats.split(","))
+                            .filter(format -> !format.isBlank())
+                            .map(OutputFormat::forName)
+                            .distinct()
+                            .toList();
+        return new OntologySerializer(formats,
+                                      OutputCompression.forName(outputCompression),
+                                      Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Suggests terms for the records of a data dictionary that are not associated with any term, and writes the
+     * suggestions to a report for review instead of generating an ontology.
+     */
+    private void suggestTerms(RADxDataDictionary dataDictionary,
+                              List<String> reportPaths,
+                              GenerationMetrics metrics) throws Exception {
+        if (reportPaths.size() != 1) {
+            System.err.println("Expected --" + SUGGEST_TERMS_OPTION + "=<report path>");
+            return;
+        }
+        var cache = context.getBean(OntCsvCache.class);
+        var index = metrics.timeStage("index", () -> TermIndex.build(cache));
+        var suggester = new TermSuggester(index, suggestionLimit, suggestionMinScore);
+        var suggestions = metrics.timeStage("suggest", () -> suggester.suggest(dataDictionary.records()));
+        TermSuggester.writeReport(suggestions, Path.of(reportPaths.get(0)));
+        System.err.printf("Suggested terms for %d of %d unannotated records%n",
+                          suggestions.recordsWithSuggestions(),
+                          suggestions.unannotatedRecords());
+    }
+
+    /**
+     * Loads the bundled ontology CSV sources and writes them to a binary snapshot that can be used in place
+     * of the sources by setting the radx.cache.snapshot property.
+     */
+    private static void writeCacheSnapshot(List<String> snapshotPaths, GenerationMetrics metrics) throws IOException {
+        if (snapshotPaths.size() != 1) {
+            System.err.println("Expected --" + WRITE_CACHE_SNAPSHOT_OPTION + "=<path>");
+            return;
+        }
+        try (var cache = ConversionConfiguration.newOntCsvCacheLoader(metrics, TextStore::onHeap)
+                                                .load(List.of(OntCsvSource.values()))) {
+            MappedOntCsvCache.write(cache, Path.of(snapshotPaths.get(0)));
+        }
+    }
+}
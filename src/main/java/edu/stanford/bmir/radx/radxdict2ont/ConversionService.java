@@ -0,0 +1,324 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.ParseMode;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryParser;
+import org.semanticweb.owlapi.model.IRI;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Converts data dictionaries to ontologies on behalf of the conversion endpoint, using the resident terms cache.
+ * <p>
+ * At most {@code radx.server.max-concurrent-conversions} conversions run at the same time.  Further requests
+ * wait for up to {@code radx.server.queue-timeout-millis}, and at most {@code radx.server.max-queued-conversions}
+ * requests may wait at once.  Requests beyond these limits are rejected with a {@link BusyException}, so that
+ * callers can back off rather than pile up on the server.
+ * <p>
+ * Converted ontologies are cached by the SHA-256 hash of the data dictionary, up to
+ * {@code radx.server.result-cache-bytes} in total, with the least recently used ontologies evicted first.
+ * Concurrent requests for the same data dictionary share a single conversion.  A request that joins a
+ * conversion in progress counts against the queue limit and waits for no longer than a queued request.
+ * <p>
+ * Each ontology is rendered into memory before it is returned, rather than streamed to the client, so that it
+ * can be cached and shared by concurrent requests, and so that a conversion that fails part way through is
+ * reported with an error status instead of as a truncated response.  An ontology that would exceed
+ * {@code radx.server.max-response-bytes} is abandoned, which bounds the memory that each conversion holds.
+ */
+@Component
+public class ConversionService {
+
+    private static final IRI ONTOLOGY_IRI = IRI.create("https://bmir-radx.github.io/");
+
+    private final CreateAxioms createAxioms;
+
+    private final RADxDataDictionaryParser parser;
+
+    private final Semaphore permits;
+
+    private final int maxQueued;
+
+    private final long queueTimeoutMillis;
+
+    private final long maxResponseBytes;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final ResultCache results;
+
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    public ConversionService(CreateAxioms createAxioms,
+                             RADxDataDictionaryParser parser,
+                             @Value("${radx.server.max-concurrent-conversions:0}") int maxConcurrent,
+                             @Value("${radx.server.max-queued-conversions:16}") int maxQueued,
+                             @Value("${radx.server.queue-timeout-millis:30000}") long queueTimeoutMillis,
+                             @Value("${radx.server.result-cache-bytes:268435456}") long resultCacheBytes,
+                             @Value("${radx.server.max-response-bytes:268435456}") long maxResponseBytes) {
+        this.createAxioms = createAxioms;
+        this.parser = parser;
+        this.permits = new Semaphore(maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors());
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.results = new ResultCache(resultCacheBytes);
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    /**
+     * Converts a data dictionary, or returns the cached ontology for an identical data dictionary.
+     *
+     * @param dataDictionary The data dictionary, as CSV.
+     * @return The ontology, in OWL Functional Syntax.
+     * @throws BusyException If the conversion was rejected because the server is at capacity.
+     * @throws InvalidDataDictionaryException If the data dictionary could not be parsed.
+     * @throws ConversionException If the data dictionary could not be converted.
+     * @throws UncheckedIOException If the ontology could not be generated because of a server-side I/O failure,
+     *                              such as a failure to load the terms cache.
+     */
+    public Conversion convert(byte[] dataDictionary) throws BusyException, ConversionException {
+        var key = hash(dataDictionary);
+        var cached = results.get(key);
+        if (cached != null) {
+            return new Conversion(key, cached, true);
+        }
+        var future = new CompletableFuture<byte[]>();
+        var existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return new Conversion(key, await(existing), true);
+        }
+        try {
+            var ontology = convertWithPermit(dataDictionary);
+            results.put(key, ontology);
+            future.complete(ontology);
+            return new Conversion(key, ontology, false);
+        } catch (BusyException | ConversionException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private byte[] convertWithPermit(byte[] dataDictionary) throws BusyException, ConversionException {
+        if (!permits.tryAcquire()) {
+            enterQueue();
+            try {
+                if (!permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new BusyException("Timed out waiting for a conversion slot");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusyException("Interrupted while waiting for a conversion slot");
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+        try {
+            return doConvert(dataDictionary);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Counts a request that is about to wait against the queue limit.  The caller must decrement the count
+     * when it stops waiting.
+     */
+    private void enterQueue() throws BusyException {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new BusyException("Too many conversions are waiting");
+        }
+    }
+
+    private byte[] doConvert(byte[] dataDictionary) throws ConversionException {
+        RADxDataDictionary parsed;
+        try {
+            parsed = parser.parse(new ByteArrayInputStream(dataDictionary), ParseMode.LAX);
+        } catch (Exception e) {
+            throw new InvalidDataDictionaryException("Could not parse data dictionary: " + e.getMessage(), e);
+        }
+        var out = new BoundedOutputStream(maxResponseBytes);
+        var writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        try (var axiomWriter = new FunctionalSyntaxAxiomWriter(writer, ONTOLOGY_IRI, ONTOLOGY_IRI.toString())) {
+            createAxioms.forConversion().createAxioms(parsed, 1, axiomWriter);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof ResponseTooLargeException) {
+                throw new ConversionException("The ontology exceeds the limit of " + maxResponseBytes + " bytes", e);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ConversionException("Could not convert data dictionary: " + e.getMessage(), e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] await(CompletableFuture<byte[]> future) throws BusyException, ConversionException {
+        enterQueue();
+        try {
+            return future.get(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new BusyException("Timed out waiting for a conversion");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusyException("Interrupted while waiting for a conversion");
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof BusyException busyException) {
+                throw busyException;
+            }
+            if (cause instanceof ConversionException conversionException) {
+                throw conversionException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private static String hash(byte[] dataDictionary) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(dataDictionary));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The result of a conversion.
+     *
+     * @param key The SHA-256 hash of the data dictionary.
+     * @param ontology The ontology, in OWL Functional Syntax.
+     * @param cached true if the ontology was produced by an earlier or concurrent conversion.
+     */
+    public record Conversion(String key, byte[] ontology, boolean cached) {
+
+    }
+
+    /**
+     * Thrown when a conversion is rejected because the server is at capacity.
+     */
+    public static class BusyException extends Exception {
+
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when a data dictionary cannot be parsed or converted.
+     */
+    public static class ConversionException extends Exception {
+
+        public ConversionException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Thrown when a data dictionary cannot be parsed.
+     */
+    public static class InvalidDataDictionaryException extends ConversionException {
+
+        public InvalidDataDictionaryException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Thrown by a {@link BoundedOutputStream} when more bytes are written than it allows.
+     */
+    private static class ResponseTooLargeException extends IOException {
+
+    }
+
+    /**
+     * A byte array output stream that refuses to grow beyond a limit.
+     */
+    private static class BoundedOutputStream extends ByteArrayOutputStream {
+
+        private final long limit;
+
+        private BoundedOutputStream(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            ensureCapacity(1);
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            super.write(b, off, len);
+        }
+
+        private void ensureCapacity(int length) {
+            if (count + (long) length > limit) {
+                throw new UncheckedIOException(new ResponseTooLargeException());
+            }
+        }
+    }
+
+    /**
+     * A least recently used cache of converted ontologies that is bounded by their total size.
+     */
+    private static class ResultCache {
+
+        private final long capacityBytes;
+
+        private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long sizeBytes;
+
+        private ResultCache(long capacityBytes) {
+            this.capacityBytes = capacityBytes;
+        }
+
+        synchronized byte[] get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, byte[] value) {
+            if (value.length > capacityBytes) {
+                return;
+            }
+            var previous = entries.put(key, value);
+            if (previous != null) {
+                sizeBytes -= previous.length;
+            }
+            sizeBytes += value.length;
+            var iterator = entries.entrySet().iterator();
+            while (sizeBytes > capacityBytes && iterator.hasNext()) {
+                sizeBytes -= iterator.next().getValue().length;
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -7,12 +7,28 @@ import org.apache.commons.text.CaseUtils;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
-import org.semanticweb.owlapi.vocab.SKOSVocabulary;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
 
@@ -26,23 +42,58 @@ public class CreateAxioms {
 
     private final OntCsvCache termsCache;
 
-    private final String PREFIX = "https://bmir-radx.github.io/";
+    private final GenerationMetrics metrics;
+
+    private final CurieResolver curieResolver;
+
+    private final CategoryClassifier classifier;
+
+    private final RadxVocabulary vocabulary;
+
+    private final String PREFIX = RadxVocabulary.PREFIX;
 
     public CreateAxioms(OWLDataFactory dataFactory, OntCsvCache termsCache) {
+        this(dataFactory,
+             termsCache,
+             GenerationMetrics.createDefault(),
+             CurieResolver.createDefault(),
+             CategoryClassifier.none());
+    }
+
+    @Autowired
+    public CreateAxioms(OWLDataFactory dataFactory,
+                        OntCsvCache termsCache,
+                        GenerationMetrics metrics,
+                        CurieResolver curieResolver,
+                        CategoryClassifier classifier) {
         this.dataFactory = dataFactory;
         this.termsCache = termsCache;
+        this.metrics = metrics;
+        this.curieResolver = curieResolver;
+        this.classifier = classifier;
+        this.vocabulary = new RadxVocabulary(dataFactory);
+    }
+
+    /**
+     * Creates a copy that shares the caches of this instance, but collects the unresolved term identifiers of
+     * the conversions that it runs separately, in {@link GenerationMetrics#forConversion()}.  A service that
+     * runs many conversions in one process uses a copy for each conversion, so that the identifiers that
+     * clients send are not kept after their conversions.
+     */
+    public CreateAxioms forConversion() {
+        return new CreateAxioms(dataFactory, termsCache, metrics.forConversion(), curieResolver, classifier);
     }
 
-    private static void addDefinitionAxioms(Set<OWLAxiom> axioms) {
+    private static void addDefinitionAxioms(AxiomSink axioms) {
         try {
             var definitionsOnt = loadDefinitionAxioms();
-            axioms.addAll(definitionsOnt.getAxioms());
+            definitionsOnt.getAxioms().forEach(axioms::add);
         } catch (OWLOntologyCreationException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private static OWLOntology loadDefinitionAxioms() throws OWLOntologyCreationException {
+    static OWLOntology loadDefinitionAxioms() throws OWLOntologyCreationException {
         return OWLManager.createOWLOntologyManager()
                          .loadOntologyFromOntologyDocument(new BufferedInputStream(CreateAxioms.class.getResourceAsStream(
                                  "/definitions.ofn")));
@@ -55,26 +106,179 @@ public class CreateAxioms {
      * @return The set of OWL axioms created from the data dictionary.
      */
     public Set<OWLAxiom> createAxioms(RADxDataDictionary dataDictionary) {
-        var axioms = new HashSet<OWLAxiom>();
-        var dataElementRootCls = addDataElementRootClassAxioms(axioms);
-        dataDictionary.records().forEach(record -> {
-            processDataDictionaryRecord(record, axioms, dataElementRootCls);
+        return createAxioms(dataDictionary, 1);
+    }
+
+    /**
+     * Creates a set of OWL axioms based on the provided RADxDataDictionary, processing the records of the
+     * data dictionary in parallel.  The records are split into contiguous partitions, each of which is
+     * processed into its own axiom buffer, and the buffers are merged once every partition is complete.
+     * <p>
+     * Records are processed independently of each other, and the axioms for shared scaffolding, such as
+     * section classes and external terms, do not depend on the record that first produces them, even where the
+     * hierarchy of external terms has cycles.  The returned
+     * set is therefore equal to the set that is returned for a parallelism of 1, and an ontology that is
+     * created from it serializes to exactly the same bytes.
+     *
+     * @param dataDictionary The RADxDataDictionary used to create OWL axioms.
+     * @param parallelism The maximum number of threads that process records.  A value of 1 processes the
+     *                    records sequentially on the calling thread.
+     * @return The set of OWL axioms created from the data dictionary.
+     */
+    public Set<OWLAxiom> createAxioms(RADxDataDictionary dataDictionary, int parallelism) {
+        Set<OWLAxiom> axioms = parallelism == 1 ? new HashSet<>() : ConcurrentHashMap.newKeySet();
+        createAxioms(dataDictionary, parallelism, axioms::add);
+        return axioms;
+    }
+
+    /**
+     * Creates OWL axioms based on the provided RADxDataDictionary and passes them to a sink as they are
+     * generated, rather than collecting them.  The axioms that are passed to the sink are the same as the
+     * axioms in the set that {@link #createAxioms(RADxDataDictionary, int)} returns, but an axiom may be passed
+     * to the sink more than once, and the order in which axioms are passed to the sink is unspecified.
+     *
+     * @param dataDictionary The RADxDataDictionary used to create OWL axioms.
+     * @param parallelism The maximum number of threads that process records.  A value of 1 processes the
+     *                    records sequentially on the calling thread.
+     * @param axioms The sink that receives the axioms.  The sink must be thread safe if the parallelism is
+     *               greater than 1.
+     */
+    public void createAxioms(RADxDataDictionary dataDictionary, int parallelism, AxiomSink axioms) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        prefetchTerms(dataDictionary.records());
+        var externalTerms = new ExternalTerms(axioms, false);
+        var sections = new Sections(axioms, false);
+        addDataElementRootClassAxioms(axioms);
+        var records = dataDictionary.records();
+        if (parallelism == 1 || records.size() < 2) {
+            records.forEach(record -> processDataDictionaryRecord(record, axioms, sections, externalTerms));
+        }
+        else {
+            processPartitions(records, parallelism, sections, externalTerms, axioms);
+        }
+        addDefinitionAxioms(axioms);
+    }
+
+    /**
+     * Processes the records in contiguous partitions on a pool of threads.  Each partition is processed into
+     * its own buffer, which removes the many duplicate scaffolding axioms before the partition's axioms are
+     * passed to the sink.
+     */
+    private void processPartitions(List<RADxDataDictionaryRecord> records,
+                                   int parallelism,
+                                   Sections sections,
+                                   ExternalTerms externalTerms,
+                                   AxiomSink axioms) {
+        // Several partitions per thread even out records that produce very different numbers of axioms
+        var partitionCount = Math.min(records.size(), parallelism * 4);
+        var partitionSize = (records.size() + partitionCount - 1) / partitionCount;
+        var threadCounter = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(parallelism, r -> {
+            var thread = new Thread(r, "create-axioms-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         });
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int start = 0; start < records.size(); start += partitionSize) {
+                var partition = records.subList(start, Math.min(records.size(), start + partitionSize));
+                futures.add(executor.submit(() -> {
+                    var buffer = new HashSet<OWLAxiom>();
+                    partition.forEach(record -> processDataDictionaryRecord(record,
+                                                                             buffer::add,
+                                                                             sections,
+                                                                             externalTerms));
+                    buffer.forEach(axioms::add);
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while creating axioms", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the axioms that each of the specified records contributes to the ontology for a data
+     * dictionary.  The axioms for a record include the axioms that describe the external terms that the record
+     * is associated with, and their ancestors, so the same axiom may be contributed by several records.  The
+     * axioms that do not depend on any record are created by {@link #createBaseAxioms(AxiomSink)}.  The union
+     * of the base axioms and the axioms for every record in a data dictionary is equal to the set that is
+     * returned by {@link #createAxioms(RADxDataDictionary)}.
+     *
+     * @param records The records to create axioms for.
+     * @return The axioms for each record, keyed by record id.  Records that share an id share an entry.
+     */
+    public Map<String, Set<OWLAxiom>> createRecordAxioms(Collection<RADxDataDictionaryRecord> records) {
+        prefetchTerms(records);
+        var externalTerms = new ExternalTerms(axiom -> {}, true);
+        var sections = new Sections(axiom -> {}, true);
+        var recordAxioms = new LinkedHashMap<String, Set<OWLAxiom>>();
+        for (var record : records) {
+            var axioms = recordAxioms.computeIfAbsent(record.id(), id -> new HashSet<>());
+            processDataDictionaryRecord(record, axioms::add, sections, externalTerms);
+        }
+        return recordAxioms;
+    }
+
+    /**
+     * Creates the axioms that are part of the ontology for every data dictionary, whatever records it contains.
+     *
+     * @param axioms The sink to add the created axioms to.
+     */
+    public void createBaseAxioms(AxiomSink axioms) {
+        addDataElementRootClassAxioms(axioms);
         addDefinitionAxioms(axioms);
-        return axioms;
     }
 
+    /**
+     * Resolves a term identifier, which is either a full IRI or a CURIE, to the IRI that is used for the term
+     * in the generated ontology.
+     *
+     * @param termIdentifier The term identifier.
+     * @return The full IRI, or the identifier itself if it is neither an IRI nor a CURIE.
+     */
+    public String resolveTerm(TermIdentifier termIdentifier) {
+        var resolution = curieResolver.resolve(termIdentifier.identifier());
+        return resolution.isResolved() ? resolution.iriString() : termIdentifier.identifier();
+    }
+
+    /**
+     * Lets the terms cache prepare for the terms that are referenced by the records, so that it only
+     * has to load the ontology sources that these terms come from.
+     *
+     * @param records The records whose terms are about to be looked up.
+     */
+    public void prefetchTerms(Collection<RADxDataDictionaryRecord> records) {
+        var termIris = records.stream()
+                              .flatMap(record -> record.terms().stream())
+                              .map(TermIdentifier::identifier)
+                              .filter(identifier -> !identifier.isEmpty())
+                              .map(curieResolver::resolve)
+                              .filter(CurieResolver.Resolution::isResolved)
+                              .map(CurieResolver.Resolution::iriString)
+                              .collect(Collectors.toSet());
+        termsCache.prefetch(termIris);
+    }
 
     /**
      * Generates and adds data element root class axioms to the set of axioms.
      *
-     * @param axioms The set of axioms to add the data element root class axioms to.
-     * @return The OWLClass representing the data element root class.
+     * @param axioms The sink to add the data element root class axioms to.
      */
-    private OWLClass addDataElementRootClassAxioms(Set<OWLAxiom> axioms) {
-        var dataElementRootCls = dataFactory.getOWLClass(IRI.create(PREFIX, "DataElement"));
-        axioms.add(dataFactory.getOWLDeclarationAxiom(dataElementRootCls));
-        return dataElementRootCls;
+    private void addDataElementRootClassAxioms(AxiomSink axioms) {
+        axioms.add(dataFactory.getOWLDeclarationAxiom(vocabulary.dataElement));
     }
 
     /**
@@ -83,112 +287,128 @@ public class CreateAxioms {
      * the data element that is represented by the data dictionary record.
      *
      * @param record The RADxDataDictionaryRecord to process.
-     * @param axioms The set of OWLAxiom to add the created axioms to.
-     * @param dataElementRootCls The OWLClass representing the data element root class.
+     * @param axioms The sink to add the created axioms to.
+     * @param sections The sections that have been added for previously processed records.
+     * @param externalTerms The external terms that have been added for previously processed records.
      */
     private void processDataDictionaryRecord(final RADxDataDictionaryRecord record,
-                                             final Set<OWLAxiom> axioms,
-                                             final OWLClass dataElementRootCls) {
-        var addedTerms = new HashSet<TermIdentifier>();
+                                             final AxiomSink axioms,
+                                             final Sections sections,
+                                             final ExternalTerms externalTerms) {
         var id = record.id();
         var iri = IRI.create(PREFIX + id);
         var cls = dataFactory.getOWLClass(iri);
         axioms.add(dataFactory.getOWLDeclarationAxiom(cls));
 
-        axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getOWLAnnotationProperty(IRI.create(
-                "https://schema.org/identifier")), iri, dataFactory.getOWLLiteral(id)));
+        axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.identifier, iri, dataFactory.getOWLLiteral(id)));
 
-        addSectionAxioms(record, axioms, dataElementRootCls, cls);
+        addSectionAxioms(record, axioms, sections, cls);
         addLabelAxioms(record, axioms, iri, id);
         addDescriptionAxioms(record, axioms, iri);
         addEnumerationAxioms(record, axioms, id, iri);
         addSeeAlsoAxioms(record, axioms, iri);
-        addAssociatedWithAxioms(record, axioms, iri, addedTerms, cls);
+        addAssociatedWithAxioms(record, axioms, iri, externalTerms, cls);
     }
 
     private void addAssociatedWithAxioms(RADxDataDictionaryRecord record,
-                                         Set<OWLAxiom> axioms,
+                                         AxiomSink axioms,
                                          IRI iri,
-                                         Set<TermIdentifier> addedTerms,
+                                         ExternalTerms externalTerms,
                                          OWLClass cls) {
+        var categories = new BitSet();
         record.terms().forEach(term -> {
             if (!term.identifier().isEmpty()) {
-                var termCls = addExternalTerm(term, axioms, Set.of(iri), addedTerms, 0);
-                axioms.add(SubClassOf(cls,
-                                      ObjectSomeValuesFrom(ObjectProperty(IRI.create(PREFIX + "isAssociatedWith")),
-                                                           termCls)));
+                var externalTerm = externalTerms.get(resolve(term, record.id()));
+                externalTerms.addRetainedAxioms(externalTerm, axioms);
+                addDataElementLinkAxioms(externalTerm, axioms, iri);
+                axioms.add(SubClassOf(cls, ObjectSomeValuesFrom(vocabulary.isAssociatedWith, externalTerm.cls())));
+                categories.or(externalTerm.categories());
             }
         });
+        // The subsumptions that a reasoner would infer from the category definitions
+        categories.stream()
+                  .forEach(i -> axioms.add(dataFactory.getOWLSubClassOfAxiom(cls, classifier.getCategories().get(i))));
+    }
+
+    /**
+     * Adds the axioms that link a data element to an external term that it is associated with.  The data
+     * element is linked to the term, and takes on the term's synonyms, and the term and each of its
+     * ancestors are linked back to the data element.
+     */
+    private void addDataElementLinkAxioms(ExternalTerm externalTerm, AxiomSink axioms, IRI deIri) {
+        var termIri = externalTerm.cls().getIRI();
+        axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.seeAlso, deIri, termIri));
+        for (var syn : externalTerm.synonyms()) {
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.altLabel,
+                                                                  deIri,
+                                                                  dataFactory.getOWLLiteral(syn)));
+        }
+        for (var ancestorIri : externalTerm.closure()) {
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.seeAlso, ancestorIri, deIri));
+        }
     }
 
-    private void addSeeAlsoAxioms(RADxDataDictionaryRecord record, Set<OWLAxiom> axioms, IRI iri) {
+    private void addSeeAlsoAxioms(RADxDataDictionaryRecord record, AxiomSink axioms, IRI iri) {
         if (record.seeAlso() != null) {
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSSeeAlso(),
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.seeAlso,
                                                                   iri,
                                                                   IRI.create(record.seeAlso())));
         }
     }
 
-    private void addEnumerationAxioms(RADxDataDictionaryRecord record, Set<OWLAxiom> axioms, String id, IRI iri) {
-        if (record.enumeration() != null) {
-            var enumeration = record.enumeration();
-            enumeration.choices().forEach(choice -> {
-                var choiceLabel = choice.label();
-                var choiceValue = choice.value();
-                var choiceIri = IRI.create(PREFIX + id + "_" + choiceValue);
-                var choiceCls = dataFactory.getOWLClass(choiceIri);
-                axioms.add(dataFactory.getOWLDeclarationAxiom(choiceCls));
-                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(getTextProperty(),
-                                                                      choiceIri,
-                                                                      dataFactory.getOWLLiteral(choiceLabel)));
-                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
-                                                                      choiceIri,
-                                                                      dataFactory.getOWLLiteral(id + " Value, " + choiceValue + " (" + choiceLabel + ")")));
-
-                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getOWLAnnotationProperty(IRI.create(
-                                                                              "https://schema.org/value")),
-                                                                      choiceIri,
-                                                                      dataFactory.getOWLLiteral(Integer.parseInt(
-                                                                              choiceValue))));
-                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSSeeAlso(), choiceIri, iri));
-
-
-                var choiceRootValueIri = IRI.create(PREFIX + id + "_value");
-                var choiceRootValueCls = dataFactory.getOWLClass(choiceRootValueIri);
-                axioms.add(dataFactory.getOWLDeclarationAxiom(choiceRootValueCls));
-                axioms.add(dataFactory.getOWLSubClassOfAxiom(choiceCls, choiceRootValueCls));
-                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
-                                                                      choiceRootValueIri,
-                                                                      dataFactory.getOWLLiteral(id + " value")));
-                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSSeeAlso(),
-                                                                      choiceRootValueIri,
-                                                                      iri));
-
-                var valueRootIri = IRI.create(PREFIX + "DataElementValue");
-                var valueRootCls = dataFactory.getOWLClass(valueRootIri);
-                axioms.add(dataFactory.getOWLSubClassOfAxiom(choiceRootValueCls, valueRootCls));
-
-                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSSeeAlso(), iri, choiceIri));
-
-            });
-
+    /**
+     * Adds the axioms for the choices of an enumerated data element.  Each choice is a class whose parent,
+     * {@code <id>_value}, groups the values of the data element, and is declared once per data element.
+     */
+    private void addEnumerationAxioms(RADxDataDictionaryRecord record, AxiomSink axioms, String id, IRI iri) {
+        if (record.enumeration() == null || record.enumeration().choices().isEmpty()) {
+            return;
         }
+        var choiceRootValueIri = IRI.create(PREFIX + id + "_value");
+        var choiceRootValueCls = dataFactory.getOWLClass(choiceRootValueIri);
+        axioms.add(dataFactory.getOWLDeclarationAxiom(choiceRootValueCls));
+        axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.label,
+                                                              choiceRootValueIri,
+                                                              dataFactory.getOWLLiteral(id + " value")));
+        axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.seeAlso, choiceRootValueIri, iri));
+        axioms.add(dataFactory.getOWLSubClassOfAxiom(choiceRootValueCls, vocabulary.dataElementValue));
+
+        record.enumeration().choices().forEach(choice -> {
+            var choiceLabel = choice.label();
+            var choiceValue = choice.value();
+            var choiceIri = IRI.create(PREFIX + id + "_" + choiceValue);
+            var choiceCls = dataFactory.getOWLClass(choiceIri);
+            axioms.add(dataFactory.getOWLDeclarationAxiom(choiceCls));
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.text,
+                                                                  choiceIri,
+                                                                  dataFactory.getOWLLiteral(choiceLabel)));
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.label,
+                                                                  choiceIri,
+                                                                  dataFactory.getOWLLiteral(id + " Value, " + choiceValue + " (" + choiceLabel + ")")));
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.value,
+                                                                  choiceIri,
+                                                                  dataFactory.getOWLLiteral(Integer.parseInt(
+                                                                          choiceValue))));
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.seeAlso, choiceIri, iri));
+            axioms.add(dataFactory.getOWLSubClassOfAxiom(choiceCls, choiceRootValueCls));
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.seeAlso, iri, choiceIri));
+        });
     }
 
-    private void addDescriptionAxioms(RADxDataDictionaryRecord record, Set<OWLAxiom> axioms, IRI iri) {
+    private void addDescriptionAxioms(RADxDataDictionaryRecord record, AxiomSink axioms, IRI iri) {
         if (!record.description().isEmpty()) {
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getOWLAnnotationProperty(SKOSVocabulary.DEFINITION.getIRI()),
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.definition,
                                                                   iri,
                                                                   dataFactory.getOWLLiteral(record.description())));
         }
     }
 
-    private void addLabelAxioms(RADxDataDictionaryRecord record, Set<OWLAxiom> axioms, IRI iri, String id) {
+    private void addLabelAxioms(RADxDataDictionaryRecord record, AxiomSink axioms, IRI iri, String id) {
         if (!record.label().isEmpty()) {
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.label,
                                                                   iri,
                                                                   dataFactory.getOWLLiteral(id + " Data Element")));
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(getTextProperty(),
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.text,
                                                                   iri,
                                                                   dataFactory.getOWLLiteral(record.label())));
         }
@@ -199,124 +419,321 @@ public class CreateAxioms {
      * specified by the data dictionary record belongs to.
      *
      * @param record The RADxDataDictionaryRecord to process.
-     * @param axioms The set of OWLAxiom to add the created axioms to.
-     * @param dataElementRootCls The OWLClass representing the data element root class.
+     * @param axioms The sink to add the created axioms to.
+     * @param sections The sections that have been added for previously processed records.
      */
     private void addSectionAxioms(RADxDataDictionaryRecord record,
-                                  Set<OWLAxiom> axioms,
-                                  OWLClass dataElementRootCls,
+                                  AxiomSink axioms,
+                                  Sections sections,
                                   OWLClass cls) {
+        axioms.add(dataFactory.getOWLSubClassOfAxiom(cls, vocabulary.dataElement));
         var section = record.section();
         if (!section.isEmpty()) {
-            var sectionIri = getSectionIri(section);
-            var sectionCls = dataFactory.getOWLClass(sectionIri);
-            var sectionClsRoot = dataFactory.getOWLClass(IRI.create(PREFIX + "DataElementSection"));
-            axioms.add(dataFactory.getOWLSubClassOfAxiom(sectionCls, sectionClsRoot));
-            //                        axioms.add(dataFactory.getOWLSubClassOfAxiom(sectionCls, dataElementRootCls));
-            axioms.add(dataFactory.getOWLSubClassOfAxiom(cls, dataElementRootCls));
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
-                                                                  sectionIri,
-                                                                  dataFactory.getOWLLiteral(section + " Section")));
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getOWLAnnotationProperty(IRI.create(PREFIX + "isInSection")),
-                                                                  cls.getIRI(),
-                                                                  sectionIri));
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSSeeAlso(), sectionIri, cls.getIRI()));
-        }
-        else {
-            axioms.add(dataFactory.getOWLSubClassOfAxiom(cls, dataElementRootCls));
+            var sectionIri = sections.get(section, axioms);
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.isInSection, cls.getIRI(), sectionIri));
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.seeAlso, sectionIri, cls.getIRI()));
         }
     }
 
-    private OWLClass addExternalTerm(TermIdentifier term,
-                                     Set<OWLAxiom> axioms,
-                                     Set<IRI> dataElementIris,
-                                     Set<TermIdentifier> addedTerms,
-                                     int level) {
-        addedTerms.add(term);
-        var resolved = resolve(term);
-
-        var termCls = dataFactory.getOWLClass(IRI.create(resolved));
+    /**
+     * Adds the axioms that describe an external term, which do not depend on the data elements that are
+     * associated with the term: the declaration, label, synonyms and definitions of the term, and its
+     * subclass relationships to its parents.
+     *
+     * @param termIri The full IRI of the term.
+     * @param parentIris The full IRIs of the parents of the term, excluding owl:Thing.
+     * @param axioms The collection of OWLAxiom to add the created axioms to.
+     * @return The synonyms of the term.
+     */
+    private List<String> addExternalTermAxioms(String termIri,
+                                               List<String> parentIris,
+                                               Collection<OWLAxiom> axioms) {
+        var termCls = dataFactory.getOWLClass(IRI.create(termIri));
         axioms.add(dataFactory.getOWLDeclarationAxiom(termCls));
-        dataElementIris.forEach(deIri -> {
-            if (level == 0) {
-                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSSeeAlso(),
-                                                                      deIri,
-                                                                      termCls.getIRI()));
-            }
-
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSSeeAlso(),
-                                                                  termCls.getIRI(),
-                                                                  deIri));
-
-        });
         termsCache.getLabel(termCls.getIRI()).ifPresent(l -> {
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.label,
                                                                   termCls.getIRI(),
                                                                   dataFactory.getOWLLiteral(l)));
         });
 
-        var syns = termsCache.getSynonyms(resolved);
+        var syns = termsCache.getSynonyms(termIri);
         for (var syn : syns) {
-            if (level == 0) {
-                dataElementIris.forEach(deIri -> {
-                    axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getOWLAnnotationProperty(
-                            SKOSVocabulary.ALTLABEL.getIRI()), deIri, dataFactory.getOWLLiteral(syn)));
-                });
-            }
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getOWLAnnotationProperty(SKOSVocabulary.ALTLABEL.getIRI()),
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.altLabel,
                                                                   termCls.getIRI(),
                                                                   dataFactory.getOWLLiteral(syn)));
         }
-        var defs = termsCache.getDefinition(resolved);
+        var defs = termsCache.getDefinition(termIri);
         for (var def : defs) {
-            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getOWLAnnotationProperty(SKOSVocabulary.DEFINITION.getIRI()),
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.definition,
                                                                   termCls.getIRI(),
                                                                   dataFactory.getOWLLiteral(def)));
         }
-        var parents = termsCache.getParents(resolved)
-                                .stream()
-                                .filter(p -> !p.equals(OWLRDFVocabulary.OWL_THING.getIRI().toString()))
-                                .toList();
-        parents.forEach(parent -> {
+        parentIris.forEach(parent -> {
             var parentCls = dataFactory.getOWLClass(IRI.create(parent));
             axioms.add(dataFactory.getOWLSubClassOfAxiom(termCls, parentCls));
-            addExternalTerm(new TermIdentifier(parent), axioms, dataElementIris, addedTerms, level + 1);
         });
-        if (parents.isEmpty()) {
-            axioms.add(dataFactory.getOWLSubClassOfAxiom(termCls,
-                                                         dataFactory.getOWLClass(IRI.create(PREFIX + "OtherThing"))));
+        if (parentIris.isEmpty()) {
+            axioms.add(dataFactory.getOWLSubClassOfAxiom(termCls, vocabulary.otherThing));
         }
-        return termCls;
+        return syns;
     }
 
-    private String resolve(TermIdentifier termIdentifier) {
+    /**
+     * Resolves a term identifier that a record refers to, reporting the identifier if it cannot be resolved.
+     *
+     * @return The full IRI, or the identifier itself if it cannot be resolved.
+     */
+    private String resolve(TermIdentifier termIdentifier, String recordId) {
         var identifier = termIdentifier.identifier();
-        if (identifier.startsWith("http")) {
-            return identifier;
+        var resolution = curieResolver.resolve(identifier);
+        if (resolution.isResolved()) {
+            return resolution.iriString();
         }
-        // Special handling for NCIT because the NCIT acronym isn't in the ontology IRI and the
-        // ontology IRI isn't in the standard format
-        else if (identifier.startsWith("NCIT")) {
-            return "http://ncicb.nci.nih.gov/xml/owl/EVS/Thesaurus.owl#" + identifier.substring(identifier.indexOf(":") + 1);
+        metrics.recordUnresolvedIdentifier(identifier, recordId, resolution.problem());
+        return identifier;
+    }
+
+    private IRI getSectionIri(String section) {
+        var sectionCamelCase = CaseUtils.toCamelCase(section, true) + "DataElement";
+        return IRI.create(PREFIX + sectionCamelCase);
+    }
+
+    /**
+     * A section that has been added to the axioms.
+     *
+     * @param iri The IRI of the section class.
+     * @param axioms The axioms that describe the section, if the memo retains them, or an empty list.
+     */
+    private record Section(IRI iri, List<OWLAxiom> axioms) {
+
+    }
+
+    /**
+     * A memo of the sections that have been added while creating the axioms for one data dictionary.  The
+     * axioms that describe a section, its label and its place under the section root class, are shared by every
+     * record in the section, so they are created and passed to the sink once per section rather than once per
+     * record.  As with {@link ExternalTerms}, the memo may be shared by threads, and may retain the axioms so
+     * that they can be attributed to every record in the section.
+     */
+    private class Sections {
+
+        private final Map<String, Section> sections = new ConcurrentHashMap<>();
+
+        private final AxiomSink axioms;
+
+        private final boolean retainAxioms;
+
+        private Sections(AxiomSink axioms, boolean retainAxioms) {
+            this.axioms = axioms;
+            this.retainAxioms = retainAxioms;
         }
-        else {
-            int prefixEnd = identifier.indexOf(":");
-            if (prefixEnd != -1) {
-                var prefix = identifier.substring(0, prefixEnd);
-                return "http://purl.obolibrary.org/obo/" + prefix + "_" + identifier.substring(prefixEnd + 1);
+
+        /**
+         * Gets the IRI of a section, adding the axioms that describe the section if they have not been added
+         * already.  Retained axioms are also added to the specified sink.
+         *
+         * @param section The name of the section.
+         * @param sink The sink for the record that is in the section.
+         */
+        private IRI get(String section, AxiomSink sink) {
+            var existing = sections.get(section);
+            if (existing == null) {
+                var sectionIri = getSectionIri(section);
+                var sectionAxioms = List.<OWLAxiom>of(
+                        dataFactory.getOWLSubClassOfAxiom(dataFactory.getOWLClass(sectionIri),
+                                                          vocabulary.dataElementSection),
+                        dataFactory.getOWLAnnotationAssertionAxiom(vocabulary.label,
+                                                                   sectionIri,
+                                                                   dataFactory.getOWLLiteral(section + " Section")));
+                existing = sections.putIfAbsent(section, new Section(sectionIri, retainAxioms ? sectionAxioms : List.of()));
+                if (existing == null) {
+                    sectionAxioms.forEach(axioms::add);
+                    existing = sections.get(section);
+                }
+            }
+            if (retainAxioms) {
+                existing.axioms().forEach(sink::add);
             }
+            return existing.iri();
         }
-        System.err.println(identifier);
-        return identifier;
-
     }
 
-    private OWLAnnotationProperty getTextProperty() {
-        return dataFactory.getOWLAnnotationProperty(IRI.create("https://schema.org/text"));
+    /**
+     * An external term that has been added to the axioms.
+     *
+     * @param cls The class for the term.
+     * @param synonyms The synonyms of the term.
+     * @param closure The IRIs of the term and all of its ancestors.
+     * @param categories The indexes of the categories of the classifier whose targets are in the closure.  The
+     *                   bitset must not be modified.
+     * @param axioms The axioms that describe the term, if the memo retains them, or an empty list.
+     */
+    private record ExternalTerm(OWLClass cls,
+                                List<String> synonyms,
+                                Set<IRI> closure,
+                                BitSet categories,
+                                List<OWLAxiom> axioms) {
+
     }
 
-    private IRI getSectionIri(String section) {
-        var sectionCamelCase = CaseUtils.toCamelCase(section, true) + "DataElement";
-        return IRI.create(PREFIX + sectionCamelCase);
+    /**
+     * A memo of the external terms that have been added while creating the axioms for one data dictionary.
+     * The axioms that describe a term, and the term's ancestor closure, are computed once per term however
+     * many records and however many paths through the hierarchy lead to the term.  The memo may be shared by
+     * threads that process records in parallel.  Two threads may occasionally compute the same term at the
+     * same time, in which case they compute identical results and only one is kept.  The axioms that describe
+     * a term are passed to the sink once, when the term is first added to the memo.  They may also be retained,
+     * so that they can be attributed to every record that is associated with the term.
+     * <p>
+     * A cycle in the hierarchy makes its terms ancestors of each other.  The terms of a cycle, or more generally
+     * of a strongly connected component of the hierarchy, are therefore added to the memo together, with the
+     * same closure and categories, so that the result does not depend on the term through which the cycle is
+     * first entered.
+     */
+    private class ExternalTerms {
+
+        private final Map<String, ExternalTerm> terms = new ConcurrentHashMap<>();
+
+        private final AxiomSink axioms;
+
+        private final boolean retainAxioms;
+
+        private ExternalTerms(AxiomSink axioms, boolean retainAxioms) {
+            this.axioms = axioms;
+            this.retainAxioms = retainAxioms;
+        }
+
+        /**
+         * Gets an external term, computing the axioms that describe the term and its ancestors if they have
+         * not been computed already.
+         *
+         * @param termIri The full IRI of the term.
+         */
+        private ExternalTerm get(String termIri) {
+            var term = terms.get(termIri);
+            if (term != null) {
+                return term;
+            }
+            new Search().visit(termIri);
+            return terms.get(termIri);
+        }
+
+        /**
+         * Adds the retained axioms that describe a term and each of its ancestors to the specified sink.  This
+         * does nothing if the memo does not retain axioms.
+         */
+        private void addRetainedAxioms(ExternalTerm term, AxiomSink sink) {
+            if (retainAxioms) {
+                for (var iri : term.closure()) {
+                    terms.get(iri.toString()).axioms().forEach(sink::add);
+                }
+            }
+        }
+
+        /**
+         * A depth first search of the ancestors of a term that are not yet in the memo, which adds them to the
+         * memo one strongly connected component at a time, using Tarjan's algorithm.  A component is complete
+         * once every ancestor outside it is in the memo, so its closure is the union of its own terms and the
+         * closures of those ancestors.
+         */
+        private class Search {
+
+            private final Map<String, Visit> visits = new HashMap<>();
+
+            private final Deque<Visit> stack = new ArrayDeque<>();
+
+            private Visit visit(String termIri) {
+                var visit = new Visit(termIri, visits.size());
+                visits.put(termIri, visit);
+                stack.push(visit);
+                for (var parentIri : visit.parentIris) {
+                    if (terms.containsKey(parentIri)) {
+                        continue;
+                    }
+                    var parent = visits.get(parentIri);
+                    if (parent == null) {
+                        parent = visit(parentIri);
+                        visit.lowLink = Math.min(visit.lowLink, parent.lowLink);
+                    }
+                    else if (parent.onStack) {
+                        visit.lowLink = Math.min(visit.lowLink, parent.index);
+                    }
+                }
+                if (visit.lowLink == visit.index) {
+                    addComponent(visit);
+                }
+                return visit;
+            }
+
+            /**
+             * Pops the strongly connected component whose first visited term is the specified term, and adds its
+             * terms to the memo.
+             */
+            private void addComponent(Visit root) {
+                var component = new ArrayList<Visit>();
+                Visit member;
+                do {
+                    member = stack.pop();
+                    member.onStack = false;
+                    component.add(member);
+                } while (member != root);
+                var closure = new LinkedHashSet<IRI>();
+                var categories = new BitSet();
+                for (var visit : component) {
+                    closure.add(IRI.create(visit.termIri));
+                    categories.or(classifier.getTargetCategories(IRI.create(visit.termIri)));
+                }
+                for (var visit : component) {
+                    for (var parentIri : visit.parentIris) {
+                        var parent = terms.get(parentIri);
+                        if (parent != null) {
+                            closure.addAll(parent.closure());
+                            categories.or(parent.categories());
+                        }
+                    }
+                }
+                for (var visit : component) {
+                    var term = new ExternalTerm(dataFactory.getOWLClass(IRI.create(visit.termIri)),
+                                                visit.synonyms,
+                                                closure,
+                                                categories,
+                                                retainAxioms ? visit.axioms : List.of());
+                    if (terms.putIfAbsent(visit.termIri, term) == null) {
+                        visit.axioms.forEach(axioms::add);
+                    }
+                }
+            }
+        }
+
+        /**
+         * A term that has been reached by a {@link Search}.
+         */
+        private class Visit {
+
+            private final String termIri;
+
+            private final int index;
+
+            private int lowLink;
+
+            private boolean onStack = true;
+
+            private final List<String> parentIris;
+
+            private final List<OWLAxiom> axioms = new ArrayList<>();
+
+            private final List<String> synonyms;
+
+            private Visit(String termIri, int index) {
+                this.termIri = termIri;
+                this.index = index;
+                this.lowLink = index;
+                this.parentIris = termsCache.getParents(termIri)
+                                            .stream()
+                                            .filter(p -> !p.equals(OWLRDFVocabulary.OWL_THING.getIRI().toString()))
+                                            .toList();
+                this.synonyms = addExternalTermAxioms(termIri, parentIris, axioms);
+            }
+        }
     }
 }
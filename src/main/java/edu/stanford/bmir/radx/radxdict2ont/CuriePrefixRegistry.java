@@ -0,0 +1,153 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The rules for expanding term identifiers to IRIs.  Each entry maps a literal identifier prefix, usually a
+ * CURIE prefix including its colon such as {@code NCIT:}, to the IRI namespace that replaces it.  The entry
+ * with the longest prefix of an identifier wins, and is found by walking a character trie of the prefixes.
+ * An identifier that contains a colon but matches no entry is expanded with an optional fallback template, in
+ * which {@code {prefix}} is replaced by the text before the colon.  An empty fallback means that such
+ * identifiers cannot be expanded.
+ * <p>
+ * A registry is loaded from JSON of the form:
+ * <pre>
+ * {
+ *   "prefixes": { "NCIT:": "http://ncicb.nci.nih.gov/xml/owl/EVS/Thesaurus.owl#" },
+ *   "fallback": "http://purl.obolibrary.org/obo/{prefix}_"
+ * }
+ * </pre>
+ * The default registry, which is bundled as {@value #DEFAULT_RESOURCE}, leaves IRIs unchanged, expands NCIT
+ * CURIEs to the NCI Thesaurus namespace, and expands all other CURIEs to OBO PURLs.
+ * <p>
+ * Instances are immutable.
+ */
+public class CuriePrefixRegistry {
+
+    /**
+     * The classpath resource of the default registry.
+     */
+    public static final String DEFAULT_RESOURCE = "/curie-prefixes.json";
+
+    private static final String PREFIX_PLACEHOLDER = "{prefix}";
+
+    private final Map<String, String> prefixes;
+
+    private final String fallback;
+
+    private final Node root = new Node();
+
+    /**
+     * @param prefixes The namespace for each literal identifier prefix.
+     * @param fallback The template for identifiers that contain a colon and match no prefix, or null or empty
+     *                 if such identifiers cannot be expanded.
+     */
+    public CuriePrefixRegistry(Map<String, String> prefixes, String fallback) {
+        this.prefixes = Map.copyOf(prefixes);
+        this.fallback = fallback == null || fallback.isEmpty() ? null : fallback;
+        this.prefixes.forEach(this::insert);
+    }
+
+    /**
+     * Loads the default registry.
+     */
+    public static CuriePrefixRegistry loadDefault() throws IOException {
+        try (var in = CuriePrefixRegistry.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("CURIE prefix registry not found: " + DEFAULT_RESOURCE);
+            }
+            return load(in);
+        }
+    }
+
+    /**
+     * Loads a registry from JSON.
+     *
+     * @param json The JSON.  The stream is not closed.
+     */
+    public static CuriePrefixRegistry load(InputStream json) throws IOException {
+        var config = new ObjectMapper().readValue(json, Config.class);
+        return new CuriePrefixRegistry(config.prefixes() != null ? config.prefixes() : Map.of(), config.fallback());
+    }
+
+    /**
+     * Loads a registry from a JSON file and applies it on top of this registry.
+     *
+     * @param json The path of the JSON file.
+     * @return A registry with the prefixes of both registries.  The file's prefixes replace this registry's
+     *         prefixes for the same identifier prefix, and its fallback replaces this registry's fallback if
+     *         the file specifies one.
+     */
+    public CuriePrefixRegistry withOverrides(Path json) throws IOException {
+        try (var in = Files.newInputStream(json)) {
+            var config = new ObjectMapper().readValue(in, Config.class);
+            var merged = new LinkedHashMap<>(prefixes);
+            if (config.prefixes() != null) {
+                merged.putAll(config.prefixes());
+            }
+            return new CuriePrefixRegistry(merged, config.fallback() != null ? config.fallback() : fallback);
+        }
+    }
+
+    /**
+     * @return The namespace for each literal identifier prefix.
+     */
+    public Map<String, String> getPrefixes() {
+        return prefixes;
+    }
+
+    /**
+     * Expands an identifier to an IRI.
+     *
+     * @param identifier The identifier.
+     * @return The IRI, or null if no prefix matches the identifier and the fallback does not apply.
+     */
+    public String expand(String identifier) {
+        var node = root;
+        String namespace = null;
+        var matchLength = 0;
+        for (int i = 0; i < identifier.length() && node != null; i++) {
+            node = node.children.get(identifier.charAt(i));
+            if (node != null && node.namespace != null) {
+                namespace = node.namespace;
+                matchLength = i + 1;
+            }
+        }
+        if (namespace != null) {
+            return namespace.concat(identifier.substring(matchLength));
+        }
+        var colon = identifier.indexOf(':');
+        if (colon == -1 || fallback == null) {
+            return null;
+        }
+        return fallback.replace(PREFIX_PLACEHOLDER, identifier.substring(0, colon))
+                       .concat(identifier.substring(colon + 1));
+    }
+
+    private void insert(String prefix, String namespace) {
+        var node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+        }
+        node.namespace = namespace;
+    }
+
+    private static class Node {
+
+        private final Map<Character, Node> children = new HashMap<>(4);
+
+        private String namespace;
+    }
+
+    private record Config(Map<String, String> prefixes, String fallback) {
+
+    }
+}
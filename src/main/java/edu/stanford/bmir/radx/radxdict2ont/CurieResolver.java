@@ -0,0 +1,87 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.IRI;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves term identifiers to IRIs with a {@link CuriePrefixRegistry}.  Resolutions are memoized, so each
+ * distinct identifier is expanded, and its {@link IRI} is created, only once however many records refer to it.
+ * Identifiers that cannot be resolved are not memoized, and at most {@value #MAX_MEMOIZED} resolutions are
+ * memoized in all, so that a long-running service that resolves identifiers from many data dictionaries uses
+ * bounded memory.  Identifiers beyond that are expanded each time that they are resolved.
+ * <p>
+ * Instances are thread safe.
+ */
+public class CurieResolver {
+
+    static final int MAX_MEMOIZED = 65536;
+
+    private final CuriePrefixRegistry registry;
+
+    private final Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry The registry that identifiers are expanded with.
+     */
+    public CurieResolver(CuriePrefixRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Creates a resolver that uses the default registry.
+     */
+    public static CurieResolver createDefault() {
+        try {
+            return new CurieResolver(CuriePrefixRegistry.loadDefault());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Resolves an identifier.
+     *
+     * @param identifier The identifier, which is an IRI or a CURIE.
+     * @return The resolution, which holds either the IRI or the reason that the identifier is unresolvable.
+     */
+    public Resolution resolve(String identifier) {
+        var resolution = resolutions.get(identifier);
+        if (resolution == null) {
+            resolution = computeResolution(identifier);
+            if (resolution.isResolved() && resolutions.size() < MAX_MEMOIZED) {
+                var existing = resolutions.putIfAbsent(identifier, resolution);
+                if (existing != null) {
+                    resolution = existing;
+                }
+            }
+        }
+        return resolution;
+    }
+
+    private Resolution computeResolution(String identifier) {
+        var iri = registry.expand(identifier);
+        if (iri != null) {
+            return new Resolution(iri, IRI.create(iri), null);
+        }
+        var reason = identifier.indexOf(':') == -1 ? "not an IRI or CURIE" : "unknown CURIE prefix";
+        return new Resolution(null, null, reason);
+    }
+
+    /**
+     * The resolution of an identifier.
+     *
+     * @param iriString The full IRI, or null if the identifier is unresolvable.
+     * @param iri The IRI, or null if the identifier is unresolvable.
+     * @param problem Why the identifier is unresolvable, or null if it was resolved.
+     */
+    public record Resolution(String iriString, IRI iri, String problem) {
+
+        public boolean isResolved() {
+            return iriString != null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryParser;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.Arrays;
+
+/**
+ * A command-line launcher that starts only the beans that a conversion needs.  Unlike
+ * {@link RadxDict2ontApplication}, it does not scan the classpath for components and does not apply Spring Boot
+ * auto-configuration: {@link RADxDataDictionaryParser}, {@link CreateAxioms}, the beans of
+ * {@link ConversionConfiguration} and {@link ConversionRunner} are imported explicitly.  The program arguments
+ * and properties are the same, except that the conversion server is not available: launching with
+ * {@code --server} fails with a message that directs users to {@link RadxDict2ontApplication}.
+ * <p>
+ * Because the set of beans is fixed, the context can be processed ahead of time by Spring AOT, and the classes
+ * that are loaded while it starts can be stored in a class data sharing archive.  See the fast-start profile
+ * in the POM.
+ */
+@Configuration(proxyBeanMethods = false)
+@Import({
+        RADxDataDictionaryParser.class,
+        CreateAxioms.class,
+        ConversionConfiguration.class,
+        ConversionRunner.class
+})
+public class FastStartApplication {
+
+    public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--" + ConversionRunner.SERVER_OPTION)) {
+            System.err.println("The conversion server is not available from " + FastStartApplication.class.getName()
+                                       + ".  Start " + RadxDict2ontApplication.class.getName()
+                                       + " with --" + ConversionRunner.SERVER_OPTION + " instead.");
+            System.exit(1);
+        }
+        var application = new SpringApplication(FastStartApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        application.run(args);
+    }
+}
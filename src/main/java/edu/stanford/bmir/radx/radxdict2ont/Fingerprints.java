@@ -0,0 +1,151 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+
+/**
+ * SHA-256 fingerprints of the inputs that generated axioms depend on, other than the data dictionary: the tool
+ * build and the bundled ontology exports and resources.  These are used to decide whether the outputs or
+ * axioms of an earlier run can be reused.
+ */
+final class Fingerprints {
+
+    private static final String[] RESOURCES = {"/definitions.ofn", "/curie-prefixes.json"};
+
+    private static final String BUILD_INFO = "/META-INF/build-info.properties";
+
+    private static volatile String bundledInputsKey;
+
+    private Fingerprints() {
+    }
+
+    /**
+     * Identifies the build of this tool.  The build time that is recorded by the Spring Boot build-info goal is
+     * preferred, because it changes with every build, including snapshot builds.  Otherwise the implementation
+     * version of a packaged jar is used.
+     *
+     * @return The build, or null if it cannot be identified, for example when running from an IDE.
+     */
+    static String getToolVersion() {
+        try (var in = Fingerprints.class.getResourceAsStream(BUILD_INFO)) {
+            if (in != null) {
+                var buildInfo = new Properties();
+                buildInfo.load(in);
+                var version = buildInfo.getProperty("build.version");
+                var time = buildInfo.getProperty("build.time");
+                if (time != null) {
+                    return version + "@" + time;
+                }
+            }
+        } catch (IOException e) {
+            // Fall back to the implementation version
+        }
+        return Fingerprints.class.getPackage().getImplementationVersion();
+    }
+
+    /**
+     * Computes a key for the bundled ontology exports and resources, by hashing their bytes.  The key is
+     * computed once and then reused.
+     */
+    static String getBundledInputsKey() {
+        var key = bundledInputsKey;
+        if (key == null) {
+            var digest = newDigest();
+            for (var source : OntCsvSource.values()) {
+                update(digest, source.getResourceName());
+                update(digest, hashResource(source.getResourceName()));
+            }
+            for (var resource : RESOURCES) {
+                update(digest, resource);
+                update(digest, hashResource(resource));
+            }
+            key = HexFormat.of().formatHex(digest.digest());
+            bundledInputsKey = key;
+        }
+        return key;
+    }
+
+    /**
+     * Hashes the bytes of a file.
+     *
+     * @return The hash, or null if the file does not exist.
+     */
+    static String hashFile(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (var in = Files.newInputStream(path)) {
+            return hash(in);
+        }
+    }
+
+    static String hash(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    /**
+     * Gets the size of a resource on the classpath.
+     *
+     * @return The size in bytes, or -1 if the resource is not on the classpath or its size is unknown.
+     */
+    static long getResourceLength(String resource) {
+        var url = Fingerprints.class.getResource(resource);
+        if (url == null) {
+            return -1;
+        }
+        try {
+            return url.openConnection().getContentLengthLong();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Adds a value to a digest, in a form that cannot be confused with a different sequence of values.
+     */
+    static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hashResource(String resource) {
+        try (var in = Fingerprints.class.getResourceAsStream(resource)) {
+            return in == null ? null : hash(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String hash(InputStream in) throws IOException {
+        var digest = newDigest();
+        var buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,76 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.functional.renderer.FunctionalSyntaxObjectRenderer;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.util.DefaultPrefixManager;
+import org.semanticweb.owlapi.vocab.SKOSVocabulary;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Renders individual axioms, and the header and footer of the document that contains them, in OWL Functional
+ * Syntax.  The rendering of an axiom depends only on the axiom, so equal axioms always have equal renderings.
+ * <p>
+ * Instances are not thread safe.
+ */
+class FunctionalSyntaxAxiomRenderer {
+
+    private final IRI ontologyIri;
+
+    private final DefaultPrefixManager prefixManager = new DefaultPrefixManager();
+
+    private final StringWriter buffer = new StringWriter();
+
+    private final FunctionalSyntaxObjectRenderer renderer;
+
+    /**
+     * @param ontologyIri The IRI of the ontology.
+     * @param defaultPrefix The IRI prefix that is abbreviated with the default (empty) prefix name.
+     */
+    FunctionalSyntaxAxiomRenderer(IRI ontologyIri, String defaultPrefix) throws IOException {
+        this.ontologyIri = ontologyIri;
+        prefixManager.setDefaultPrefix(defaultPrefix);
+        prefixManager.setPrefix("skos:", SKOSVocabulary.ALTLABEL.getIRI().getNamespace());
+        try {
+            var ontology = OWLManager.createOWLOntologyManager().createOntology(ontologyIri);
+            this.renderer = new FunctionalSyntaxObjectRenderer(ontology, buffer);
+        } catch (OWLOntologyCreationException e) {
+            throw new IOException(e);
+        }
+        renderer.setPrefixManager(prefixManager);
+    }
+
+    /**
+     * Renders an axiom.
+     *
+     * @param axiom The axiom.
+     * @return The rendering, without a trailing line break.
+     */
+    String render(OWLAxiom axiom) {
+        buffer.getBuffer().setLength(0);
+        axiom.accept(renderer);
+        return buffer.toString();
+    }
+
+    /**
+     * Writes the prefix declarations and the opening of the ontology.
+     */
+    void writeHeader(Writer writer) throws IOException {
+        for (var prefix : prefixManager.getPrefixName2PrefixMap().entrySet()) {
+            writer.write("Prefix(" + prefix.getKey() + "=<" + prefix.getValue() + ">)\n");
+        }
+        writer.write("\n\nOntology(<" + ontologyIri + ">\n\n");
+    }
+
+    /**
+     * Writes the closing of the ontology.
+     */
+    void writeFooter(Writer writer) throws IOException {
+        writer.write(")");
+    }
+}
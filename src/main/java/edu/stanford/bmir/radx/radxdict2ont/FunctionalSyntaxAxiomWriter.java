@@ -0,0 +1,145 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * An {@link AxiomSink} that writes each axiom that it receives to an OWL Functional Syntax document as soon as
+ * it is received, so that the axioms never have to be collected into a set or an OWLOntology.
+ * <p>
+ * Duplicate axioms are detected with a set of 64-bit fingerprints of the rendered axioms rather than by
+ * retaining the axioms themselves.  Two distinct axioms whose fingerprints collide would cause the second
+ * axiom to be dropped; with 64-bit fingerprints the chance of this is negligible for the millions of axioms
+ * that a large data dictionary produces.
+ * <p>
+ * Instances are thread safe.  The document is completed by {@link #close()}.
+ */
+public class FunctionalSyntaxAxiomWriter implements AxiomSink, Closeable {
+
+    private final Writer writer;
+
+    private final FunctionalSyntaxAxiomRenderer renderer;
+
+    private final FingerprintSet written = new FingerprintSet();
+
+    private long axiomCount;
+
+    /**
+     * Starts a document and writes its prefix declarations and ontology header.
+     *
+     * @param writer The writer to write the document to.  The writer is closed by {@link #close()}.
+     * @param ontologyIri The IRI of the ontology.
+     * @param defaultPrefix The IRI prefix that is abbreviated with the default (empty) prefix name.
+     */
+    public FunctionalSyntaxAxiomWriter(Writer writer, IRI ontologyIri, String defaultPrefix) throws IOException {
+        this.writer = writer;
+        this.renderer = new FunctionalSyntaxAxiomRenderer(ontologyIri, defaultPrefix);
+        renderer.writeHeader(writer);
+    }
+
+    @Override
+    public synchronized void add(OWLAxiom axiom) {
+        var rendering = renderer.render(axiom);
+        if (written.add(fingerprint(rendering))) {
+            try {
+                writer.append(rendering).append('\n');
+                axiomCount++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return The number of distinct axioms that have been written.
+     */
+    public synchronized long getAxiomCount() {
+        return axiomCount;
+    }
+
+    /**
+     * Completes the document and closes the underlying writer.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            renderer.writeFooter(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a hash of the rendering of an axiom.
+     */
+    private static long fingerprint(CharSequence rendering) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < rendering.length(); i++) {
+            var ch = rendering.charAt(i);
+            hash = (hash ^ (ch & 0xff)) * 0x100000001b3L;
+            hash = (hash ^ (ch >>> 8)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * An open-addressing hash set of primitive long fingerprints.
+     */
+    private static class FingerprintSet {
+
+        private static final long EMPTY = 0;
+
+        private long[] table = new long[1 << 16];
+
+        private int size;
+
+        private boolean containsEmpty;
+
+        /**
+         * Adds a fingerprint.
+         *
+         * @return true if the fingerprint was not already in the set.
+         */
+        boolean add(long fingerprint) {
+            if (fingerprint == EMPTY) {
+                var added = !containsEmpty;
+                containsEmpty = true;
+                return added;
+            }
+            var mask = table.length - 1;
+            var slot = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+            while (table[slot] != EMPTY) {
+                if (table[slot] == fingerprint) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = fingerprint;
+            size++;
+            if (size * 2 > table.length) {
+                rehash();
+            }
+            return true;
+        }
+
+        private void rehash() {
+            var old = table;
+            table = new long[old.length * 2];
+            var mask = table.length - 1;
+            for (var fingerprint : old) {
+                if (fingerprint != EMPTY) {
+                    var slot = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+                    while (table[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = fingerprint;
+                }
+            }
+        }
+    }
+}
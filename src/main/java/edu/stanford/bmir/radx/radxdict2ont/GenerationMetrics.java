@@ -0,0 +1,289 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Records metrics for ontology generation in a Micrometer {@link MeterRegistry}, and writes a JSON report
+ * of a run.  The following meters are recorded:
+ * <ul>
+ *     <li>{@code radx.stage.duration}: a timer for each stage of a run, such as download, parse, cache-load,
+ *     generate and save, tagged with {@code stage}.</li>
+ *     <li>{@code radx.ontcsv.load.duration}, {@code radx.ontcsv.rows} and {@code radx.ontcsv.bytes}: the time
+ *     taken to load each ontology CSV source, and the rows and compressed bytes read from it, tagged with
+ *     {@code source}.</li>
+ *     <li>{@code radx.cache.lookups}: terms cache lookups, tagged with {@code lookup} (label, synonyms,
+ *     definition or parents) and {@code result} (hits or misses).  A lookup that returns no values is a miss.</li>
+ *     <li>{@code radx.terms.unresolved}: term identifiers that could not be resolved to IRIs, tagged with
+ *     {@code prefix}, the upper-cased leading letters of the identifier if they name a well-known terminology, and
+ *     {@value #OTHER_PREFIX} otherwise, so that input cannot create an unbounded number of meters.  The report
+ *     also lists each unresolved identifier, why it could not be resolved, and the records that refer to
+ *     it.</li>
+ *     <li>{@code radx.axioms}: the axioms in the generated ontology, tagged with {@code type}.</li>
+ * </ul>
+ * Instances are thread safe.  The unresolved identifiers are collected by each instance, rather than in the
+ * registry, so a process that runs many conversions uses {@link #forConversion()} to collect them separately
+ * for each conversion.
+ */
+public class GenerationMetrics {
+
+    static final String STAGE_DURATION = "radx.stage.duration";
+
+    static final String SOURCE_LOAD_DURATION = "radx.ontcsv.load.duration";
+
+    static final String SOURCE_ROWS = "radx.ontcsv.rows";
+
+    static final String SOURCE_BYTES = "radx.ontcsv.bytes";
+
+    static final String CACHE_LOOKUPS = "radx.cache.lookups";
+
+    static final String UNRESOLVED_TERMS = "radx.terms.unresolved";
+
+    static final String AXIOMS = "radx.axioms";
+
+    private static final String NO_PREFIX = "(none)";
+
+    private static final String OTHER_PREFIX = "other";
+
+    /**
+     * The identifier prefixes that are given their own tag: the terminologies of the bundled ontology sources
+     * and other terminologies that data dictionaries commonly refer to.
+     */
+    private static final Set<String> TAGGED_PREFIXES =
+            Stream.concat(Arrays.stream(OntCsvSource.values()).map(OntCsvSource::name),
+                          Stream.of("LOINC", "SNOMED", "SNOMEDCT", "UMLS", "CDE", "RXNORM", "ICD", "MESH", "OBI",
+                                    "UBERON", "CHEBI"))
+                  .collect(Collectors.toUnmodifiableSet());
+
+    private final MeterRegistry registry;
+
+    private final Map<String, UnresolvedTerm> unresolvedTerms = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry The registry that meters are recorded in.
+     */
+    public GenerationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Creates metrics that are recorded in a registry of their own, for use where no registry is configured.
+     */
+    public static GenerationMetrics createDefault() {
+        return new GenerationMetrics(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Creates metrics that record meters in the same registry as these metrics, but that collect the unresolved
+     * identifiers of a single conversion of their own.
+     */
+    public GenerationMetrics forConversion() {
+        return new GenerationMetrics(registry);
+    }
+
+    /**
+     * @return The registry that meters are recorded in.
+     */
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Runs a stage of a run and records its duration.
+     *
+     * @param stage The name of the stage.
+     * @param action The work that makes up the stage.
+     * @return The result of the action.
+     */
+    public <T> T timeStage(String stage, Callable<T> action) throws Exception {
+        return Timer.builder(STAGE_DURATION).tag("stage", stage).register(registry).recordCallable(action);
+    }
+
+    /**
+     * Records the loading of an ontology CSV source.
+     *
+     * @param source The source.
+     * @param rows The number of rows that were read, excluding the header.
+     * @param bytes The number of compressed bytes that were read.
+     * @param duration The time that it took to load the source.
+     */
+    public void recordSourceLoad(OntCsvSource source, long rows, long bytes, Duration duration) {
+        var tag = source.name();
+        Timer.builder(SOURCE_LOAD_DURATION).tag("source", tag).register(registry).record(duration);
+        Counter.builder(SOURCE_ROWS).tag("source", tag).register(registry).increment(rows);
+        Counter.builder(SOURCE_BYTES).tag("source", tag).baseUnit("bytes").register(registry).increment(bytes);
+    }
+
+    /**
+     * Records a terms cache lookup.
+     *
+     * @param lookup The kind of lookup: label, synonyms, definition or parents.
+     * @param hit true if the lookup returned a value.
+     */
+    public void recordCacheLookup(String lookup, boolean hit) {
+        registry.counter(CACHE_LOOKUPS, "lookup", lookup, "result", hit ? "hits" : "misses").increment();
+    }
+
+    /**
+     * Records a term identifier that could not be resolved to an IRI.
+     *
+     * @param identifier The identifier.
+     * @param recordId The id of the record that refers to the identifier.
+     * @param problem Why the identifier could not be resolved.
+     */
+    public void recordUnresolvedIdentifier(String identifier, String recordId, String problem) {
+        var prefix = getPrefix(identifier);
+        var upperCasePrefix = prefix.toUpperCase(Locale.ROOT);
+        var tag = prefix.equals(NO_PREFIX) ? NO_PREFIX
+                : TAGGED_PREFIXES.contains(upperCasePrefix) ? upperCasePrefix
+                : OTHER_PREFIX;
+        registry.counter(UNRESOLVED_TERMS, "prefix", tag).increment();
+        unresolvedTerms.computeIfAbsent(identifier,
+                                        i -> new UnresolvedTerm(i, prefix, problem, new ConcurrentSkipListSet<>()))
+                       .records()
+                       .add(recordId);
+    }
+
+    /**
+     * @return The term identifiers that could not be resolved, in identifier order.
+     */
+    public List<UnresolvedTerm> getUnresolvedTerms() {
+        var terms = new ArrayList<>(unresolvedTerms.values());
+        terms.sort(Comparator.comparing(UnresolvedTerm::identifier));
+        return terms;
+    }
+
+    /**
+     * Records the axioms in the generated ontology.
+     *
+     * @param axioms The axioms.
+     */
+    public void recordAxioms(Collection<OWLAxiom> axioms) {
+        var counts = new TreeMap<String, Long>();
+        axioms.forEach(axiom -> counts.merge(axiom.getAxiomType().getName(), 1L, Long::sum));
+        counts.forEach((type, count) -> registry.counter(AXIOMS, "type", type).increment(count));
+    }
+
+    /**
+     * Wraps a sink so that the axioms that pass through it are recorded.  Axioms are recorded each time that
+     * they are added, so an axiom that is added more than once is counted more than once.
+     *
+     * @param sink The sink to wrap.
+     */
+    public AxiomSink recordingAxioms(AxiomSink sink) {
+        return axiom -> {
+            registry.counter(AXIOMS, "type", axiom.getAxiomType().getName()).increment();
+            sink.add(axiom);
+        };
+    }
+
+    /**
+     * Writes a JSON report of the meters that have been recorded so far.
+     *
+     * @param report The path of the report.
+     * @throws IOException If the report could not be written.
+     */
+    public void writeReport(Path report) throws IOException {
+        var stages = new TreeMap<String, Double>();
+        registry.find(STAGE_DURATION).timers()
+                .forEach(t -> stages.put(t.getId().getTag("stage"), t.totalTime(TimeUnit.MILLISECONDS)));
+        var sources = new TreeMap<String, Map<String, Number>>();
+        registry.find(SOURCE_LOAD_DURATION).timers()
+                .forEach(t -> sources.computeIfAbsent(t.getId().getTag("source"), s -> new TreeMap<>())
+                                     .put("durationMillis", t.totalTime(TimeUnit.MILLISECONDS)));
+        registry.find(SOURCE_ROWS).counters()
+                .forEach(c -> sources.computeIfAbsent(c.getId().getTag("source"), s -> new TreeMap<>())
+                                     .put("rows", (long) c.count()));
+        registry.find(SOURCE_BYTES).counters()
+                .forEach(c -> sources.computeIfAbsent(c.getId().getTag("source"), s -> new TreeMap<>())
+                                     .put("bytes", (long) c.count()));
+        var cacheLookups = new TreeMap<String, Map<String, Long>>();
+        registry.find(CACHE_LOOKUPS).counters()
+                .forEach(c -> cacheLookups.computeIfAbsent(c.getId().getTag("lookup"), l -> new TreeMap<>())
+                                          .put(c.getId().getTag("result"), (long) c.count()));
+        var unresolved = new TreeMap<String, Long>();
+        registry.find(UNRESOLVED_TERMS).counters()
+                .forEach(c -> unresolved.put(c.getId().getTag("prefix"), (long) c.count()));
+        var axioms = new TreeMap<String, Long>();
+        registry.find(AXIOMS).counters().forEach(c -> axioms.put(c.getId().getTag("type"), (long) c.count()));
+
+        var parent = report.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                          .writeValue(report.toFile(),
+                                      new RunReport(stages,
+                                                    sources,
+                                                    cacheLookups,
+                                                    unresolved,
+                                                    getUnresolvedTerms(),
+                                                    axioms));
+    }
+
+    /**
+     * Gets the leading letters of an identifier, which is usually the name of the terminology that the
+     * identifier was meant to refer to, such as LOINC in "LOINC 94500-6".
+     */
+    private static String getPrefix(String identifier) {
+        var end = 0;
+        while (end < identifier.length() && Character.isLetter(identifier.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? NO_PREFIX : identifier.substring(0, end);
+    }
+
+    /**
+     * A JSON report of a run.
+     *
+     * @param stageDurationsMillis The total duration of each stage, in milliseconds.
+     * @param ontologySources The load duration, rows and compressed bytes of each ontology CSV source.
+     * @param cacheLookups The hits and misses of each kind of terms cache lookup.
+     * @param unresolvedIdentifiers The number of unresolved term identifiers, by prefix tag.
+     * @param unresolvedTerms Each unresolved term identifier.
+     * @param axioms The number of axioms, by type.
+     */
+    record RunReport(Map<String, Double> stageDurationsMillis,
+                     Map<String, Map<String, Number>> ontologySources,
+                     Map<String, Map<String, Long>> cacheLookups,
+                     Map<String, Long> unresolvedIdentifiers,
+                     List<UnresolvedTerm> unresolvedTerms,
+                     Map<String, Long> axioms) {
+
+    }
+
+    /**
+     * A term identifier that could not be resolved to an IRI.
+     *
+     * @param identifier The identifier.
+     * @param prefix The leading letters of the identifier.
+     * @param problem Why the identifier could not be resolved.
+     * @param records The ids of the records that refer to the identifier.
+     */
+    public record UnresolvedTerm(String identifier, String prefix, String problem, Set<String> records) {
+
+    }
+}
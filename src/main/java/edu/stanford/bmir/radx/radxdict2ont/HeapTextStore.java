@@ -0,0 +1,27 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import java.util.Arrays;
+
+/**
+ * A {@link TextStore} that keeps the added arrays on the heap.
+ */
+class HeapTextStore implements TextStore {
+
+    private String[][] entries = new String[1024][];
+
+    private int size;
+
+    @Override
+    public int add(String[] values) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size] = values;
+        return size++;
+    }
+
+    @Override
+    public String[] get(int entry) {
+        return entries[entry];
+    }
+}
@@ -0,0 +1,287 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.TermIdentifier;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.semanticweb.owlapi.model.IRI;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * An {@link OntCsvCache} that is populated from ontology information in CSV format and held on the heap.
+ * <p>
+ * Terms are dictionary encoded: each IRI is interned once to an int id by a {@link TermDictionary}, and
+ * labels, synonyms, definitions and parents are held in arrays that are indexed by id.  Parents are stored
+ * as primitive arrays of term ids rather than as lists of IRI strings.  Synonyms and definitions are held in
+ * a {@link TextStore}, and only the entry of each term in the store is held in an array.
+ */
+public class InMemoryOntCsvCache implements OntCsvCache {
+
+    private static final String[] NO_VALUES = new String[0];
+
+    private static final int NONE = -1;
+
+    private final TermDictionary terms = new TermDictionary();
+
+    /**
+     * Labels by term id.  A term that has a row in a loaded export always has a (possibly empty) label,
+     * so a null label marks a term that has only been seen as the parent of another term.
+     */
+    private String[] labels = new String[1024];
+
+    /**
+     * The entries of the synonyms and definitions of each term in the text store, by term id, or {@link #NONE}.
+     */
+    private int[] synonymEntries = newEntries(1024);
+
+    private int[] definitionEntries = newEntries(1024);
+
+    private int[][] parents = new int[1024][];
+
+    private final TextStore textStore;
+
+    /**
+     * Creates a cache that holds synonyms and definitions on the heap.
+     */
+    public InMemoryOntCsvCache() {
+        this(TextStore.onHeap());
+    }
+
+    /**
+     * @param textStore The store that synonyms and definitions are held in.  The store must not be shared with
+     *                  another cache.
+     */
+    public InMemoryOntCsvCache(TextStore textStore) {
+        this.textStore = textStore;
+    }
+
+    /**
+     * Signals that no more entries will be loaded or copied into this cache (see {@link TextStore#finish()}).
+     */
+    public void finish() {
+        textStore.finish();
+    }
+
+    /**
+     * Closes the text store of this cache.
+     */
+    @Override
+    public void close() {
+        textStore.close();
+    }
+
+    @Override
+    public List<String> getSynonyms(String oboId) {
+        var id = findLoadedTerm(oboId);
+        return id == -1 || synonymEntries[id] == NONE ? List.of() : List.of(textStore.get(synonymEntries[id]));
+    }
+
+    @Override
+    public List<String> getDefinition(String oboId) {
+        var id = findLoadedTerm(oboId);
+        return id == -1 || definitionEntries[id] == NONE ? List.of() : List.of(textStore.get(definitionEntries[id]));
+    }
+
+    @Override
+    public List<String> getParents(String oboId) {
+        var id = findLoadedTerm(oboId);
+        if (id == -1 || parents[id] == null) {
+            return List.of();
+        }
+        var parentIds = parents[id];
+        var parentIris = new String[parentIds.length];
+        for (int i = 0; i < parentIds.length; i++) {
+            parentIris[i] = terms.getIri(parentIds[i]);
+        }
+        return List.of(parentIris);
+    }
+
+    /**
+     * Loads a gzipped BioPortal CSV export into this cache.  The export is streamed one row at a time and only
+     * the columns that the cache serves (see {@link OntCsvHeader}) are retained, so the full file is never held
+     * in memory.  Rows that are loaded later replace the entries of rows with the same IRI that were loaded
+     * earlier.
+     *
+     * @param inputStream A stream of gzipped CSV.  The stream is closed when loading completes.
+     * @return The number of rows that were loaded, excluding the header.
+     * @throws IOException If the stream could not be read.
+     */
+    public long load(InputStream inputStream) throws IOException {
+        var gzipStream = new GzipCompressorInputStream(inputStream);
+        var br = new BufferedReader(new InputStreamReader(gzipStream, StandardCharsets.UTF_8));
+        try (var csvParser = new CSVParser(br, CSVFormat.DEFAULT)) {
+            var iterator = csvParser.iterator();
+            if (!iterator.hasNext()) {
+                return 0;
+            }
+            var columns = Columns.fromHeader(iterator.next());
+            var rows = 0L;
+            while (iterator.hasNext()) {
+                loadRecord(iterator.next(), columns);
+                rows++;
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Copies the entries of another cache into this cache.  Entries in the other cache replace entries
+     * for the same term in this cache, in the same way as loading the other cache's rows after this cache's rows.
+     *
+     * @param other The cache whose entries are copied.
+     */
+    public void putAll(InMemoryOntCsvCache other) {
+        for (int otherId = 0; otherId < other.terms.size(); otherId++) {
+            if (other.labels[otherId] == null) {
+                continue;
+            }
+            var id = internTerm(other.terms.getIri(otherId));
+            labels[id] = other.labels[otherId];
+            var otherSynonyms = other.synonymEntries[otherId];
+            synonymEntries[id] = otherSynonyms == NONE ? NONE : textStore.add(other.textStore.get(otherSynonyms));
+            var otherDefinition = other.definitionEntries[otherId];
+            if (otherDefinition != NONE) {
+                definitionEntries[id] = textStore.add(other.textStore.get(otherDefinition));
+            }
+            var otherParents = other.parents[otherId];
+            if (otherParents != null) {
+                var parentIds = new int[otherParents.length];
+                for (int i = 0; i < otherParents.length; i++) {
+                    parentIds[i] = internTerm(other.terms.getIri(otherParents[i]));
+                }
+                parents[id] = parentIds;
+            }
+        }
+    }
+
+    private void loadRecord(CSVRecord r, Columns columns) {
+        var id = internTerm(r.get(columns.iri()));
+        labels[id] = r.get(columns.preferredLabel());
+        var synonyms = splitValues(r.get(columns.synonyms()));
+        synonymEntries[id] = synonyms.length == 0 ? NONE : textStore.add(synonyms);
+
+        if (columns.parents() != -1 && columns.parents() < r.size()) {
+            var parentIris = splitValues(r.get(columns.parents()));
+            if (parentIris.length != 0) {
+                var parentIds = new int[parentIris.length];
+                for (int i = 0; i < parentIris.length; i++) {
+                    parentIds[i] = internTerm(parentIris[i]);
+                }
+                parents[id] = parentIds;
+            }
+        }
+
+        if (columns.definition() != -1 && columns.definition() < r.size()) {
+            var def = r.get(columns.definition());
+            if (!def.isEmpty()) {
+                definitionEntries[id] = textStore.add(new String[]{def});
+            }
+        }
+    }
+
+    private static String[] splitValues(String values) {
+        if (values.isEmpty()) {
+            return NO_VALUES;
+        }
+        var split = Stream.of(values.split("\\|"))
+                          .map(String::trim)
+                          .filter(s -> !s.isEmpty())
+                          .toArray(String[]::new);
+        return split.length == 0 ? NO_VALUES : split;
+    }
+
+    /**
+     * Interns a term IRI, growing the per-term arrays to cover the new id if necessary.
+     */
+    private int internTerm(String iri) {
+        var id = terms.intern(iri);
+        if (id >= labels.length) {
+            var newLength = labels.length * 2;
+            labels = Arrays.copyOf(labels, newLength);
+            synonymEntries = growEntries(synonymEntries, newLength);
+            definitionEntries = growEntries(definitionEntries, newLength);
+            parents = Arrays.copyOf(parents, newLength);
+        }
+        return id;
+    }
+
+    private static int[] newEntries(int length) {
+        var entries = new int[length];
+        Arrays.fill(entries, NONE);
+        return entries;
+    }
+
+    private static int[] growEntries(int[] entries, int newLength) {
+        var grown = Arrays.copyOf(entries, newLength);
+        Arrays.fill(grown, entries.length, newLength, NONE);
+        return grown;
+    }
+
+    /**
+     * Finds the id of a term that has a row in a loaded export.
+     *
+     * @return The id, or -1 if the term has not been loaded.
+     */
+    private int findLoadedTerm(String iri) {
+        var id = terms.find(iri);
+        return id == -1 || labels[id] == null ? -1 : id;
+    }
+
+    @Override
+    public Optional<String> getLabel(IRI iri) {
+        var id = findLoadedTerm(iri.toString());
+        return id == -1 ? Optional.empty() : Optional.of(labels[id]);
+    }
+
+    @Override
+    public Set<String> getTermIds() {
+        var termIds = new HashSet<String>();
+        for (int id = 0; id < terms.size(); id++) {
+            if (labels[id] != null) {
+                termIds.add(terms.getIri(id));
+            }
+        }
+        return termIds;
+    }
+
+    /**
+     * The positions of the projected columns in a CSV export.  The parents and definition columns are
+     * optional and are -1 when they are not present in the header.
+     */
+    private record Columns(int iri, int preferredLabel, int synonyms, int parents, int definition) {
+
+        private static Columns fromHeader(CSVRecord header) {
+            var headerMap = new HashMap<String, Integer>();
+            for (int i = 0; i < header.size(); i++) {
+                headerMap.put(header.get(i), i);
+            }
+            return new Columns(required(headerMap, OntCsvHeader.IRI),
+                               required(headerMap, OntCsvHeader.PREFERRED_LABEL),
+                               required(headerMap, OntCsvHeader.SYNONYMS),
+                               headerMap.getOrDefault(OntCsvHeader.PARENTS, -1),
+                               headerMap.getOrDefault(OntCsvHeader.DEFINITION, -1));
+        }
+
+        private static int required(Map<String, Integer> headerMap, String column) {
+            var index = headerMap.get(column);
+            if (index == null) {
+                throw new IllegalArgumentException("Missing column in ontology CSV header: " + column);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryRecord;
+import org.semanticweb.owlapi.model.IRI;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static edu.stanford.bmir.radx.radxdict2ont.Fingerprints.newDigest;
+import static edu.stanford.bmir.radx.radxdict2ont.Fingerprints.update;
+
+/**
+ * Generates the ontology for a data dictionary incrementally.  Next to the output, the generator keeps a state
+ * file that records a fingerprint of each data dictionary record, together with the axioms that the record
+ * contributed.  On a re-run, axioms are only created for records that have been added or whose fingerprint
+ * has changed.  The axioms of unchanged records are reused from the state file, and the axioms of removed
+ * records are dropped.
+ * <p>
+ * A record's fingerprint is a SHA-256 hash of the record fields that affect the generated axioms, with term
+ * identifiers resolved to IRIs.  The state also records a key for the tool build, the bytes of the bundled
+ * ontology sources and resources, and the settings that affect axioms.  If any of these changes, or the tool
+ * build cannot be identified, every record is regenerated.
+ * <p>
+ * Each run writes the ontology in OWL Functional Syntax, with its axioms in sorted order, and writes a JSON
+ * diff that lists the added, changed and removed records and the added and removed axioms.
+ */
+public class IncrementalOntologyGenerator {
+
+    private static final int STATE_VERSION = 1;
+
+    private static final String STATE_SUFFIX = ".state.json";
+
+    private static final String DIFF_SUFFIX = ".diff.json";
+
+    private final CreateAxioms createAxioms;
+
+    private final IRI ontologyIri;
+
+    private final List<String> settings;
+
+    private final String toolVersion;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * @param createAxioms The CreateAxioms that is used to create axioms for new and changed records.
+     * @param ontologyIri The IRI of the generated ontology, which is also used as the default prefix.
+     */
+    public IncrementalOntologyGenerator(CreateAxioms createAxioms, IRI ontologyIri) {
+        this(createAxioms, ontologyIri, List.of());
+    }
+
+    /**
+     * @param createAxioms The CreateAxioms that is used to create axioms for new and changed records.
+     * @param ontologyIri The IRI of the generated ontology, which is also used as the default prefix.
+     * @param settings A description of the settings that affect the axioms, such as category classification
+     *                 and prefix overrides.  Stored axioms are only reused by a run with the same settings.
+     */
+    public IncrementalOntologyGenerator(CreateAxioms createAxioms, IRI ontologyIri, List<String> settings) {
+        this(createAxioms, ontologyIri, settings, Fingerprints.getToolVersion());
+    }
+
+    /**
+     * @param toolVersion The build of this tool, or null if it cannot be identified.
+     */
+    IncrementalOntologyGenerator(CreateAxioms createAxioms,
+                                 IRI ontologyIri,
+                                 List<String> settings,
+                                 String toolVersion) {
+        this.createAxioms = createAxioms;
+        this.ontologyIri = ontologyIri;
+        this.settings = List.copyOf(settings);
+        this.toolVersion = toolVersion;
+    }
+
+    /**
+     * Gets the paths of the files that a run for an output path writes: the ontology document, the state and
+     * the diff.
+     */
+    public static List<Path> getOutputPaths(Path output) {
+        return List.of(output, getSiblingPath(output, STATE_SUFFIX), getSiblingPath(output, DIFF_SUFFIX));
+    }
+
+    /**
+     * Generates the ontology for a data dictionary, reusing the axioms from the previous run for the same
+     * output where possible.
+     *
+     * @param dataDictionary The data dictionary.
+     * @param output The path of the ontology document.  The state is kept in a {@code .state.json} file, and
+     *               the diff is written to a {@code .diff.json} file, next to this path.
+     * @return The differences between the previous run and this run.
+     * @throws IOException If the ontology, state or diff could not be written.
+     */
+    public AxiomDiff generate(RADxDataDictionary dataDictionary, Path output) throws IOException {
+        var statePath = getSiblingPath(output, STATE_SUFFIX);
+        var generationKey = getGenerationKey();
+        var previous = readState(statePath, generationKey);
+        var renderer = new FunctionalSyntaxAxiomRenderer(ontologyIri, ontologyIri.toString());
+
+        var recordsById = new LinkedHashMap<String, List<RADxDataDictionaryRecord>>();
+        dataDictionary.records().forEach(r -> recordsById.computeIfAbsent(r.id(), id -> new ArrayList<>()).add(r));
+
+        var fingerprints = new LinkedHashMap<String, String>();
+        var staleRecords = new ArrayList<RADxDataDictionaryRecord>();
+        recordsById.forEach((id, records) -> {
+            var fingerprint = fingerprint(records);
+            fingerprints.put(id, fingerprint);
+            var previousRecord = previous.records().get(id);
+            if (previousRecord == null || !previousRecord.fingerprint().equals(fingerprint)) {
+                staleRecords.addAll(records);
+            }
+        });
+
+        var regenerated = createAxioms.createRecordAxioms(staleRecords);
+        var records = new TreeMap<String, RecordState>();
+        var addedRecords = new ArrayList<String>();
+        var changedRecords = new ArrayList<String>();
+        fingerprints.forEach((id, fingerprint) -> {
+            var recordAxioms = regenerated.get(id);
+            if (recordAxioms == null) {
+                records.put(id, previous.records().get(id));
+                return;
+            }
+            var renderings = new TreeSet<String>();
+            recordAxioms.forEach(axiom -> renderings.add(renderer.render(axiom)));
+            records.put(id, new RecordState(fingerprint, List.copyOf(renderings)));
+            (previous.records().containsKey(id) ? changedRecords : addedRecords).add(id);
+        });
+        var removedRecords = new ArrayList<>(previous.records().keySet());
+        removedRecords.removeAll(fingerprints.keySet());
+
+        var baseAxioms = new TreeSet<String>();
+        createAxioms.createBaseAxioms(axiom -> baseAxioms.add(renderer.render(axiom)));
+        var state = new IncrementalState(STATE_VERSION, generationKey, List.copyOf(baseAxioms), records);
+
+        var previousAxioms = previous.getAxioms();
+        var axioms = state.getAxioms();
+        var addedAxioms = new TreeSet<>(axioms);
+        addedAxioms.removeAll(previousAxioms);
+        var removedAxioms = new TreeSet<>(previousAxioms);
+        removedAxioms.removeAll(axioms);
+        var diff = new AxiomDiff(addedRecords,
+                                 changedRecords,
+                                 removedRecords,
+                                 List.copyOf(addedAxioms),
+                                 List.copyOf(removedAxioms));
+
+        try (var writer = Files.newBufferedWriter(output)) {
+            renderer.writeHeader(writer);
+            for (var axiom : axioms) {
+                writer.write(axiom);
+                writer.write('\n');
+            }
+            renderer.writeFooter(writer);
+        }
+        objectMapper.writeValue(getSiblingPath(output, DIFF_SUFFIX).toFile(), diff);
+        objectMapper.writeValue(statePath.toFile(), state);
+        return diff;
+    }
+
+    private IncrementalState readState(Path statePath, String generationKey) throws IOException {
+        if (Files.isRegularFile(statePath)) {
+            var state = objectMapper.readValue(statePath.toFile(), IncrementalState.class);
+            if (state.version() == STATE_VERSION
+                    && generationKey != null
+                    && generationKey.equals(state.generationKey())) {
+                return state;
+            }
+        }
+        return new IncrementalState(STATE_VERSION, generationKey, List.of(), Map.of());
+    }
+
+    private String fingerprint(List<RADxDataDictionaryRecord> records) {
+        var digest = newDigest();
+        for (var record : records) {
+            update(digest, record.id());
+            update(digest, record.label());
+            update(digest, record.description());
+            update(digest, record.section());
+            update(digest, record.seeAlso());
+            var enumeration = record.enumeration();
+            if (enumeration != null) {
+                for (var choice : enumeration.choices()) {
+                    update(digest, choice.value());
+                    update(digest, choice.label());
+                }
+            }
+            for (var term : record.terms()) {
+                update(digest, term.identifier().isEmpty() ? "" : createAxioms.resolveTerm(term));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes a key for everything other than the data dictionary that the generated axioms depend on: the
+     * build of this tool, the bundled ontology sources and resources, and the settings.
+     *
+     * @return The key, or null if the build of this tool cannot be identified, in which case no stored axioms
+     *         are reused.
+     */
+    private String getGenerationKey() {
+        if (toolVersion == null) {
+            return null;
+        }
+        var digest = newDigest();
+        update(digest, toolVersion);
+        update(digest, Fingerprints.getBundledInputsKey());
+        for (var setting : settings) {
+            update(digest, setting);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static Path getSiblingPath(Path output, String suffix) {
+        return output.resolveSibling(output.getFileName() + suffix);
+    }
+
+    /**
+     * The differences between two incremental runs.
+     *
+     * @param addedRecords The ids of records that were not in the previous run.
+     * @param changedRecords The ids of records whose fingerprints changed.
+     * @param removedRecords The ids of records that were in the previous run but are no longer present.
+     * @param addedAxioms The axioms, in OWL Functional Syntax, that were added to the ontology.
+     * @param removedAxioms The axioms, in OWL Functional Syntax, that were removed from the ontology.
+     */
+    public record AxiomDiff(List<String> addedRecords,
+                            List<String> changedRecords,
+                            List<String> removedRecords,
+                            List<String> addedAxioms,
+                            List<String> removedAxioms) {
+
+    }
+
+    /**
+     * The state that is kept between incremental runs.
+     */
+    record IncrementalState(int version,
+                            String generationKey,
+                            List<String> baseAxioms,
+                            Map<String, RecordState> records) {
+
+        TreeSet<String> getAxioms() {
+            var axioms = new TreeSet<>(baseAxioms);
+            records.values().forEach(record -> axioms.addAll(record.axioms()));
+            return axioms;
+        }
+    }
+
+    /**
+     * The fingerprint of a record and the axioms, in OWL Functional Syntax, that it contributed.
+     */
+    record RecordState(String fingerprint, List<String> axioms) {
+
+    }
+}
@@ -0,0 +1,216 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.IRI;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An {@link OntCsvCache} that loads its {@link OntCsvSource}s on demand.  A lookup for a term loads only the
+ * sources that define the term's namespace (see {@link OntCsvSource#defines(String)}).  A lookup for a term in
+ * a namespace that no source defines, such as a GO term that is carried in the PATO export, loads every source.
+ * <p>
+ * Lookups consult only the sources that are needed for the term, so the result of a lookup does not depend on
+ * which other sources happen to have been loaded.  When several of these sources describe the same term, the
+ * source that comes later in the precedence order wins, in the same way as for an eagerly loaded cache.  Rows
+ * for a term that are carried by a source other than the one that defines the term's namespace are not
+ * consulted, so the defining ontology's own label, synonyms, definition and parents are used.
+ * <p>
+ * Instances are safe for use by concurrent readers.  Each source is loaded at most once, unless loading it fails,
+ * in which case the lookups that are waiting for it fail and a later lookup tries to load it again.  Closing the cache
+ * closes the caches of the sources that have been loaded.
+ */
+public class LazyOntCsvCache implements OntCsvCache {
+
+    private final List<OntCsvSource> sources;
+
+    private final OntCsvCacheLoader loader;
+
+    private final Map<OntCsvSource, CompletableFuture<InMemoryOntCsvCache>> loaded = new ConcurrentHashMap<>();
+
+    /**
+     * @param sources The sources that may be loaded, in precedence order.
+     * @param loader The loader that is used to load sources.
+     */
+    public LazyOntCsvCache(List<OntCsvSource> sources, OntCsvCacheLoader loader) {
+        this.sources = List.copyOf(sources);
+        this.loader = loader;
+    }
+
+    /**
+     * Loads, in parallel, every source that is needed to look up the specified terms.
+     *
+     * @param termIds The full IRIs of terms that are about to be looked up.
+     */
+    @Override
+    public void prefetch(Collection<String> termIds) {
+        var needed = new LinkedHashSet<OntCsvSource>();
+        for (var termId : termIds) {
+            needed.addAll(getSourcesFor(termId));
+        }
+        ensureLoaded(List.copyOf(needed));
+    }
+
+    @Override
+    public List<String> getSynonyms(String oboId) {
+        var caches = getCachesFor(oboId);
+        for (int i = caches.size() - 1; i >= 0; i--) {
+            var cache = caches.get(i);
+            if (cache.getLabel(IRI.create(oboId)).isPresent()) {
+                return cache.getSynonyms(oboId);
+            }
+        }
+        return List.of();
+    }
+
+    @Override
+    public List<String> getDefinition(String oboId) {
+        var caches = getCachesFor(oboId);
+        for (int i = caches.size() - 1; i >= 0; i--) {
+            var definition = caches.get(i).getDefinition(oboId);
+            if (!definition.isEmpty()) {
+                return definition;
+            }
+        }
+        return List.of();
+    }
+
+    @Override
+    public List<String> getParents(String oboId) {
+        var caches = getCachesFor(oboId);
+        for (int i = caches.size() - 1; i >= 0; i--) {
+            var parents = caches.get(i).getParents(oboId);
+            if (!parents.isEmpty()) {
+                return parents;
+            }
+        }
+        return List.of();
+    }
+
+    @Override
+    public Optional<String> getLabel(IRI iri) {
+        var caches = getCachesFor(iri.toString());
+        for (int i = caches.size() - 1; i >= 0; i--) {
+            var label = caches.get(i).getLabel(iri);
+            if (label.isPresent()) {
+                return label;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Loads every source and returns the identifiers of all of the terms that they contain.
+     */
+    @Override
+    public Set<String> getTermIds() {
+        var termIds = new HashSet<String>();
+        ensureLoaded(sources).forEach(cache -> termIds.addAll(cache.getTermIds()));
+        return termIds;
+    }
+
+    @Override
+    public void close() {
+        for (var future : loaded.values()) {
+            var cache = future.getNow(null);
+            if (cache != null) {
+                cache.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the sources that must be loaded to look up a term, in precedence order.
+     */
+    private List<OntCsvSource> getSourcesFor(String termId) {
+        var defining = new ArrayList<OntCsvSource>(1);
+        for (var source : sources) {
+            if (source.defines(termId)) {
+                defining.add(source);
+            }
+        }
+        return defining.isEmpty() ? sources : defining;
+    }
+
+    /**
+     * Gets the caches that are consulted for a term, in precedence order.
+     */
+    private List<InMemoryOntCsvCache> getCachesFor(String termId) {
+        return ensureLoaded(getSourcesFor(termId));
+    }
+
+    /**
+     * Ensures that the specified sources are loaded.  Sources that are neither loaded nor being loaded by
+     * another thread are loaded together, in parallel, on behalf of the calling thread.
+     *
+     * @return The caches for the specified sources, in the same order as the sources.
+     */
+    private List<InMemoryOntCsvCache> ensureLoaded(List<OntCsvSource> required) {
+        var claimed = new ArrayList<OntCsvSource>();
+        var claimedFutures = new ArrayList<CompletableFuture<InMemoryOntCsvCache>>();
+        var futures = new ArrayList<CompletableFuture<InMemoryOntCsvCache>>(required.size());
+        for (var source : required) {
+            var future = new CompletableFuture<InMemoryOntCsvCache>();
+            var existing = loaded.putIfAbsent(source, future);
+            if (existing == null) {
+                claimed.add(source);
+                claimedFutures.add(future);
+                futures.add(future);
+            }
+            else {
+                futures.add(existing);
+            }
+        }
+        if (!claimed.isEmpty()) {
+            try {
+                var caches = loader.loadEach(claimed);
+                for (int i = 0; i < claimed.size(); i++) {
+                    claimedFutures.get(i).complete(caches.get(i));
+                }
+            } catch (Throwable e) {
+                // Forget the failed loads, so that a later lookup tries again, before releasing the waiting threads
+                for (int i = 0; i < claimed.size(); i++) {
+                    loaded.remove(claimed.get(i), claimedFutures.get(i));
+                    claimedFutures.get(i).completeExceptionally(e);
+                }
+            }
+        }
+        var caches = new ArrayList<InMemoryOntCsvCache>(required.size());
+        for (var future : futures) {
+            caches.add(await(future));
+        }
+        return caches;
+    }
+
+    private static InMemoryOntCsvCache await(CompletableFuture<InMemoryOntCsvCache> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading ontology CSV sources", e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
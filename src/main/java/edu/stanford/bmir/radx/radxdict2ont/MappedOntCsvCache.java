@@ -0,0 +1,327 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.IRI;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An {@link OntCsvCache} that reads directly from a memory-mapped binary snapshot.  A snapshot is written
+ * once with {@link #write(OntCsvCache, Path)} and can then be opened with {@link #open(Path)} without
+ * decompressing or parsing any CSV.  Lookups decode only the strings that they return, so the cache has
+ * almost no heap cost of its own.
+ * <p>
+ * A snapshot consists of a header, a table of term records sorted by the UTF-8 bytes of the term IRI,
+ * a pool of string lists, and a string table of offsets into a UTF-8 blob.  Each term record holds the
+ * string index of the term IRI and label, and the offsets of its synonym, definition and parent lists
+ * (or -1 when absent).  Each list is stored as its length followed by that many string indexes.
+ * <p>
+ * Instances are safe for use by concurrent readers.
+ */
+public class MappedOntCsvCache implements OntCsvCache {
+
+    private static final int MAGIC = 0x52584f43;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_INTS = 5;
+
+    private static final int TERM_RECORD_INTS = 5;
+
+    private static final int IRI_FIELD = 0;
+
+    private static final int LABEL_FIELD = 1;
+
+    private static final int SYNONYMS_FIELD = 2;
+
+    private static final int DEFINITIONS_FIELD = 3;
+
+    private static final int PARENTS_FIELD = 4;
+
+    private static final int NONE = -1;
+
+    private final ByteBuffer buffer;
+
+    private final int termCount;
+
+    private final int termsOffset;
+
+    private final int listsOffset;
+
+    private final int stringOffsetsOffset;
+
+    private final int blobOffset;
+
+    private MappedOntCsvCache(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an ontology cache snapshot");
+        }
+        var version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported ontology cache snapshot version: " + version);
+        }
+        this.termCount = buffer.getInt(8);
+        var listIntCount = buffer.getInt(12);
+        var stringCount = buffer.getInt(16);
+        this.termsOffset = HEADER_INTS * Integer.BYTES;
+        this.listsOffset = termsOffset + termCount * TERM_RECORD_INTS * Integer.BYTES;
+        this.stringOffsetsOffset = listsOffset + listIntCount * Integer.BYTES;
+        this.blobOffset = stringOffsetsOffset + (stringCount + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Opens a snapshot that was written by {@link #write(OntCsvCache, Path)}.
+     *
+     * @param snapshot The path of the snapshot file.
+     * @return A cache that reads from the memory-mapped snapshot.
+     * @throws IOException If the file could not be mapped or is not a snapshot.
+     */
+    public static MappedOntCsvCache open(Path snapshot) throws IOException {
+        try (var channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Ontology cache snapshot is too large to map: " + snapshot);
+            }
+            return new MappedOntCsvCache(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Writes a snapshot of the specified cache.  The snapshot is written to a temporary file next to the
+     * target and then moved into place, so that readers never observe a partially written snapshot.
+     *
+     * @param cache The cache to write.
+     * @param snapshot The path of the snapshot file.
+     * @throws IOException If the snapshot could not be written.
+     */
+    public static void write(OntCsvCache cache, Path snapshot) throws IOException {
+        var termIds = new ArrayList<byte[]>();
+        for (var termId : cache.getTermIds()) {
+            termIds.add(termId.getBytes(StandardCharsets.UTF_8));
+        }
+        termIds.sort(Arrays::compareUnsigned);
+
+        var strings = new StringTable();
+        var lists = new IntArray();
+        var terms = new IntArray();
+        for (var termIdBytes : termIds) {
+            var termId = new String(termIdBytes, StandardCharsets.UTF_8);
+            terms.add(strings.indexOf(termId));
+            terms.add(cache.getLabel(IRI.create(termId)).map(strings::indexOf).orElse(NONE));
+            terms.add(addList(cache.getSynonyms(termId), strings, lists));
+            terms.add(addList(cache.getDefinition(termId), strings, lists));
+            terms.add(addList(cache.getParents(termId), strings, lists));
+        }
+
+        var parent = snapshot.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        var tmp = Files.createTempFile(parent, snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(termIds.size());
+                out.writeInt(lists.size());
+                out.writeInt(strings.size());
+                terms.writeTo(out);
+                lists.writeTo(out);
+                strings.writeTo(out);
+            }
+            Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static int addList(List<String> values, StringTable strings, IntArray lists) {
+        if (values.isEmpty()) {
+            return NONE;
+        }
+        var offset = lists.size();
+        lists.add(values.size());
+        values.forEach(value -> lists.add(strings.indexOf(value)));
+        return offset;
+    }
+
+    @Override
+    public List<String> getSynonyms(String oboId) {
+        return getList(oboId, SYNONYMS_FIELD);
+    }
+
+    @Override
+    public List<String> getDefinition(String oboId) {
+        return getList(oboId, DEFINITIONS_FIELD);
+    }
+
+    @Override
+    public List<String> getParents(String oboId) {
+        return getList(oboId, PARENTS_FIELD);
+    }
+
+    @Override
+    public Optional<String> getLabel(IRI iri) {
+        var term = findTerm(iri.toString());
+        if (term == NONE) {
+            return Optional.empty();
+        }
+        var label = getTermField(term, LABEL_FIELD);
+        return label == NONE ? Optional.empty() : Optional.of(getString(label));
+    }
+
+    @Override
+    public Set<String> getTermIds() {
+        var termIds = new HashSet<String>(termCount * 2);
+        for (int term = 0; term < termCount; term++) {
+            termIds.add(getString(getTermField(term, IRI_FIELD)));
+        }
+        return termIds;
+    }
+
+    private List<String> getList(String oboId, int field) {
+        var term = findTerm(oboId);
+        if (term == NONE) {
+            return List.of();
+        }
+        var listOffset = getTermField(term, field);
+        if (listOffset == NONE) {
+            return List.of();
+        }
+        var size = buffer.getInt(listsOffset + listOffset * Integer.BYTES);
+        var values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = getString(buffer.getInt(listsOffset + (listOffset + 1 + i) * Integer.BYTES));
+        }
+        return List.of(values);
+    }
+
+    private int getTermField(int term, int field) {
+        return buffer.getInt(termsOffset + (term * TERM_RECORD_INTS + field) * Integer.BYTES);
+    }
+
+    /**
+     * Binary searches the term records for the specified IRI.
+     *
+     * @return The index of the term record, or -1 if the term is not in the snapshot.
+     */
+    private int findTerm(String termId) {
+        var key = termId.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareString(getTermField(mid, IRI_FIELD), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return NONE;
+    }
+
+    private int compareString(int string, byte[] key) {
+        var start = getStringStart(string);
+        var length = getStringStart(string + 1) - start;
+        var common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            var cmp = Byte.compareUnsigned(buffer.get(blobOffset + start + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private int getStringStart(int string) {
+        return buffer.getInt(stringOffsetsOffset + string * Integer.BYTES);
+    }
+
+    private String getString(int string) {
+        var start = getStringStart(string);
+        var bytes = new byte[getStringStart(string + 1) - start];
+        buffer.get(blobOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A growable array of primitive ints.
+     */
+    private static class IntArray {
+
+        private int[] values = new int[1024];
+
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            for (int i = 0; i < size; i++) {
+                out.writeInt(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Assigns each distinct string an index, so that IRIs that appear as both terms and parents are
+     * stored once.
+     */
+    private static class StringTable {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        private final List<byte[]> strings = new ArrayList<>();
+
+        int indexOf(String value) {
+            return indexes.computeIfAbsent(value, v -> {
+                strings.add(v.getBytes(StandardCharsets.UTF_8));
+                return strings.size() - 1;
+            });
+        }
+
+        int size() {
+            return strings.size();
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            int offset = 0;
+            for (var string : strings) {
+                out.writeInt(offset);
+                offset += string.length;
+            }
+            out.writeInt(offset);
+            for (var string : strings) {
+                out.write(string);
+            }
+        }
+    }
+}
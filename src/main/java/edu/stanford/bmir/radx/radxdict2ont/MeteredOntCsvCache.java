@@ -0,0 +1,69 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.IRI;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An {@link OntCsvCache} that records the hits and misses of the lookups that are made on another cache.
+ */
+public class MeteredOntCsvCache implements OntCsvCache {
+
+    private final OntCsvCache delegate;
+
+    private final GenerationMetrics metrics;
+
+    /**
+     * @param delegate The cache that lookups are made on.
+     * @param metrics The metrics that hits and misses are recorded in.
+     */
+    public MeteredOntCsvCache(OntCsvCache delegate, GenerationMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<String> getSynonyms(String oboId) {
+        return record("synonyms", delegate.getSynonyms(oboId));
+    }
+
+    @Override
+    public List<String> getDefinition(String oboId) {
+        return record("definition", delegate.getDefinition(oboId));
+    }
+
+    @Override
+    public List<String> getParents(String oboId) {
+        return record("parents", delegate.getParents(oboId));
+    }
+
+    @Override
+    public Optional<String> getLabel(IRI iri) {
+        var label = delegate.getLabel(iri);
+        metrics.recordCacheLookup("label", label.isPresent());
+        return label;
+    }
+
+    @Override
+    public Set<String> getTermIds() {
+        return delegate.getTermIds();
+    }
+
+    @Override
+    public void prefetch(Collection<String> termIds) {
+        delegate.prefetch(termIds);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private List<String> record(String lookup, List<String> values) {
+        metrics.recordCacheLookup(lookup, !values.isEmpty());
+        return values;
+    }
+}
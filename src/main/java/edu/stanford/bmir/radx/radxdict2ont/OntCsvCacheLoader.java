@@ -0,0 +1,230 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Loads a set of {@link OntCsvSource}s into a single {@link OntCsvCache}.  Each source is decompressed and
+ * parsed into its own cache on a bounded pool of worker threads.  The per-source caches are then merged in
+ * the order in which the sources were supplied, so the result is the same as loading the sources one after
+ * another on a single thread.  The time taken to load each source, and the rows and bytes read from it, are
+ * recorded in {@link GenerationMetrics}.
+ * <p>
+ * The text stores of the returned caches are finished, so no more entries can be added to them.  The caller
+ * closes the caches when it no longer needs them.
+ */
+public class OntCsvCacheLoader {
+
+    private final int parallelism;
+
+    private final GenerationMetrics metrics;
+
+    private final Supplier<TextStore> textStores;
+
+    /**
+     * @param parallelism The maximum number of sources that are loaded at the same time.
+     */
+    public OntCsvCacheLoader(int parallelism) {
+        this(parallelism, GenerationMetrics.createDefault());
+    }
+
+    /**
+     * @param parallelism The maximum number of sources that are loaded at the same time.
+     * @param metrics The metrics that source loads are recorded in.
+     */
+    public OntCsvCacheLoader(int parallelism, GenerationMetrics metrics) {
+        this(parallelism, metrics, TextStore::onHeap);
+    }
+
+    /**
+     * @param parallelism The maximum number of sources that are loaded at the same time.
+     * @param metrics The metrics that source loads are recorded in.
+     * @param textStores Creates the store that each loaded cache holds its synonyms and definitions in.
+     */
+    public OntCsvCacheLoader(int parallelism, GenerationMetrics metrics, Supplier<TextStore> textStores) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        this.metrics = metrics;
+        this.textStores = textStores;
+    }
+
+    /**
+     * Loads the specified sources.
+     *
+     * @param sources The sources to load, in precedence order.  Later sources replace the entries of earlier
+     *                sources for the same term.
+     * @return The merged cache.
+     * @throws IOException If any of the sources could not be read.
+     */
+    public InMemoryOntCsvCache load(List<OntCsvSource> sources) throws IOException {
+        var caches = loadEach(sources);
+        var merged = new InMemoryOntCsvCache(textStores.get());
+        try {
+            for (var cache : caches) {
+                merged.putAll(cache);
+            }
+            merged.finish();
+            return merged;
+        } catch (RuntimeException e) {
+            merged.close();
+            throw e;
+        } finally {
+            caches.forEach(InMemoryOntCsvCache::close);
+        }
+    }
+
+    /**
+     * Loads each of the specified sources into its own cache.
+     *
+     * @param sources The sources to load.
+     * @return One cache per source, in the same order as the sources.
+     * @throws IOException If any of the sources could not be read.
+     */
+    public List<InMemoryOntCsvCache> loadEach(List<OntCsvSource> sources) throws IOException {
+        var threadCount = Math.min(parallelism, Math.max(1, sources.size()));
+        var threadCounter = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(threadCount, r -> {
+            var thread = new Thread(r, "ont-csv-loader-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            var futures = new ArrayList<Future<InMemoryOntCsvCache>>(sources.size());
+            for (var source : sources) {
+                futures.add(executor.submit(() -> loadSource(source)));
+            }
+            var caches = new ArrayList<InMemoryOntCsvCache>(sources.size());
+            try {
+                for (var future : futures) {
+                    caches.add(await(future));
+                }
+            } catch (IOException | RuntimeException e) {
+                caches.forEach(InMemoryOntCsvCache::close);
+                discard(futures.subList(caches.size() + 1, futures.size()));
+                throw e;
+            }
+            return caches;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cancels the loads of caches that are no longer wanted, and closes the caches of loads that have already
+     * completed.
+     */
+    private static void discard(List<Future<InMemoryOntCsvCache>> futures) {
+        for (var future : futures) {
+            if (!future.cancel(true)) {
+                try {
+                    future.get().close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | RuntimeException e) {
+                    // The load failed, so there is no cache to close
+                }
+            }
+        }
+    }
+
+    private InMemoryOntCsvCache loadSource(OntCsvSource source) throws IOException {
+        var start = System.nanoTime();
+        var cache = new InMemoryOntCsvCache(textStores.get());
+        long rows;
+        var stream = new CountingInputStream(source.openStream());
+        try {
+            rows = cache.load(stream);
+        } catch (IOException | RuntimeException e) {
+            cache.close();
+            throw e;
+        }
+        cache.finish();
+        metrics.recordSourceLoad(source, rows, stream.count, Duration.ofNanos(System.nanoTime() - start));
+        return cache;
+    }
+
+    private static InMemoryOntCsvCache await(Future<InMemoryOntCsvCache> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading ontology CSV sources", e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Counts the bytes that are read from a stream.  Bytes that are read again after a reset are only counted
+     * once.  Each stream is read by a single loader thread.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private long markedCount;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            var n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            var skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            super.mark(readLimit);
+            markedCount = count;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            super.reset();
+            count = markedCount;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * The gzipped BioPortal CSV exports that are bundled with the application.  The declaration order is
+ * the load order: when two sources describe the same term, the source that is declared later wins.
+ * <p>
+ * Each source also declares the IRI namespaces of the ontology that it exports.  These are the namespaces
+ * that {@link CreateAxioms} produces when it resolves CURIEs such as {@code HP:0000118} or {@code NCIT:C123},
+ * and they allow a source to be loaded only when one of its terms is looked up.
+ */
+public enum OntCsvSource {
+
+    MONDO("/MONDO.csv.gz", "http://purl.obolibrary.org/obo/MONDO_"),
+
+    NCIT("/NCIT.csv.gz", "http://ncicb.nci.nih.gov/xml/owl/EVS/Thesaurus.owl#"),
+
+    IAO("/IAO.csv.gz", "http://purl.obolibrary.org/obo/IAO_"),
+
+    HP("/HP.csv.gz", "http://purl.obolibrary.org/obo/HP_"),
+
+    PATO("/PATO.csv.gz", "http://purl.obolibrary.org/obo/PATO_"),
+
+    GSSO("/GSSO.csv.gz", "http://purl.obolibrary.org/obo/GSSO_"),
+
+    NBO("/NBO.csv.gz", "http://purl.obolibrary.org/obo/NBO_"),
+
+    SYMP("/SYMP.csv.gz", "http://purl.obolibrary.org/obo/SYMP_");
+
+    private final String resourceName;
+
+    private final List<String> namespaces;
+
+    OntCsvSource(String resourceName, String... namespaces) {
+        this.resourceName = resourceName;
+        this.namespaces = List.of(namespaces);
+    }
+
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    /**
+     * @return The IRI namespaces of the terms that are defined by the ontology that this source exports.
+     */
+    public List<String> getNamespaces() {
+        return namespaces;
+    }
+
+    /**
+     * Determines whether a term is defined by the ontology that this source exports.
+     *
+     * @param iri The full IRI of the term.
+     * @return true if the IRI is in one of this source's namespaces.
+     */
+    public boolean defines(String iri) {
+        for (var namespace : namespaces) {
+            if (iri.startsWith(namespace)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Opens the bundled export for this source.
+     *
+     * @return A stream of gzipped CSV.
+     * @throws IOException If the export is not on the classpath.
+     */
+    public InputStream openStream() throws IOException {
+        var stream = OntCsvSource.class.getResourceAsStream(resourceName);
+        if (stream == null) {
+            throw new IOException("Ontology CSV resource not found: " + resourceName);
+        }
+        return new BufferedInputStream(stream);
+    }
+
+    /**
+     * Gets the size of the bundled export for this source, which changes whenever the export is refreshed.
+     *
+     * @return The size in bytes, or -1 if the export is not on the classpath or its size is unknown.
+     */
+    public long getContentLength() {
+        return Fingerprints.getResourceLength(resourceName);
+    }
+}
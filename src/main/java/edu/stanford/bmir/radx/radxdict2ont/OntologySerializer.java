@@ -0,0 +1,155 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes an ontology in one or more formats.  Each format is rendered from the same ontology, on a thread of
+ * its own, and is streamed through the configured compression to its own file.
+ * <p>
+ * The files are named after a destination path: the extension of the destination is replaced by the extension
+ * of each format, and the suffix of the compression is appended.  For example, a destination of
+ * {@code /tmp/ont.owl} with the Turtle and RDF/XML formats and gzip compression produces {@code /tmp/ont.ttl.gz}
+ * and {@code /tmp/ont.owl.gz}.
+ */
+public class OntologySerializer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final List<OutputFormat> formats;
+
+    private final OutputCompression compression;
+
+    private final int parallelism;
+
+    /**
+     * @param formats The formats to write.
+     * @param compression The compression that is applied to each file.
+     * @param parallelism The maximum number of formats that are rendered at the same time.
+     */
+    public OntologySerializer(List<OutputFormat> formats, OutputCompression compression, int parallelism) {
+        if (formats.isEmpty()) {
+            throw new IllegalArgumentException("At least one output format is required");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.formats = List.copyOf(formats);
+        this.compression = compression;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the paths of the files that are written for a destination.
+     *
+     * @param destination The destination.
+     * @return The path of the file for each format, in the order of the formats.
+     */
+    public List<Path> getOutputPaths(Path destination) {
+        var fileName = destination.getFileName().toString();
+        var dot = fileName.lastIndexOf('.');
+        var baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return formats.stream()
+                      .map(format -> destination.resolveSibling(baseName + "." + format.getExtension() + compression.getSuffix()))
+                      .toList();
+    }
+
+    /**
+     * Writes an ontology in each of the formats.  If any format cannot be written then the files that were
+     * written for the other formats are deleted.
+     *
+     * @param ontology The ontology to write.
+     * @param destination The path that the names of the files are derived from.
+     * @return The paths of the files that were written, in the order of the formats.
+     * @throws IOException If the ontology could not be written in one of the formats.
+     */
+    public List<Path> write(OWLOntology ontology, Path destination) throws IOException {
+        var outputs = getOutputPaths(destination);
+        var tasks = new ArrayList<Callable<Void>>(formats.size());
+        for (int i = 0; i < formats.size(); i++) {
+            var format = formats.get(i);
+            var output = outputs.get(i);
+            tasks.add(() -> {
+                write(ontology, format, output);
+                return null;
+            });
+        }
+        try {
+            if (parallelism == 1 || tasks.size() == 1) {
+                for (var task : tasks) {
+                    task.call();
+                }
+            }
+            else {
+                runConcurrently(tasks);
+            }
+        } catch (Exception e) {
+            for (var output : outputs) {
+                Files.deleteIfExists(output);
+            }
+            if (e instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Could not write ontology: " + e.getMessage(), e);
+        }
+        return outputs;
+    }
+
+    private void write(OWLOntology ontology, OutputFormat format, Path output)
+            throws IOException, OWLOntologyStorageException {
+        var parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        try (var out = compression.wrap(new BufferedOutputStream(Files.newOutputStream(output), BUFFER_SIZE))) {
+            ontology.getOWLOntologyManager().saveOntology(ontology, format.createDocumentFormat(), out);
+        }
+    }
+
+    private void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        var threadCounter = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()), r -> {
+            var thread = new Thread(r, "ontology-serializer-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            var futures = new ArrayList<Future<Void>>(tasks.size());
+            for (var task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            // Every format is waited for, so that no file is still being written when a failure is reported
+            Throwable failure = null;
+            for (var future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            if (failure != null) {
+                throw (Exception) failure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing ontology", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The compression that is applied to written ontologies as they are streamed to disk.
+ */
+public enum OutputCompression {
+
+    NONE("none", "") {
+        @Override
+        public OutputStream wrap(OutputStream out) {
+            return out;
+        }
+    },
+
+    GZIP("gzip", ".gz") {
+        @Override
+        public OutputStream wrap(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+    },
+
+    ZSTD("zstd", ".zst") {
+        @Override
+        public OutputStream wrap(OutputStream out) throws IOException {
+            return new ZstdCompressorOutputStream(out);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+
+    private final String suffix;
+
+    OutputCompression(String name, String suffix) {
+        this.name = name;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Gets a compression by name.
+     *
+     * @param name The name of the compression: none, gzip or zstd.
+     * @throws IllegalArgumentException If there is no compression with the name.
+     */
+    public static OutputCompression forName(String name) {
+        for (var compression : values()) {
+            if (compression.name.equalsIgnoreCase(name.strip())) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown output compression: " + name);
+    }
+
+    /**
+     * @return The suffix that is appended to the names of compressed files, such as ".gz", or an empty string.
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Wraps a stream so that the bytes written to it are compressed.  Closing the returned stream finishes the
+     * compressed data and closes the wrapped stream.
+     *
+     * @param out The stream to wrap.
+     */
+    public abstract OutputStream wrap(OutputStream out) throws IOException;
+}
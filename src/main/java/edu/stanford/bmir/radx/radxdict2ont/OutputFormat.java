@@ -0,0 +1,73 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.formats.RDFJsonLDDocumentFormat;
+import org.semanticweb.owlapi.formats.RDFXMLDocumentFormat;
+import org.semanticweb.owlapi.formats.TurtleDocumentFormat;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
+
+import java.util.function.Supplier;
+
+/**
+ * The formats that a generated ontology can be written in.  Each format is written to a file with its own
+ * extension.
+ */
+public enum OutputFormat {
+
+    RDF_XML("rdf-xml", "owl", RDFXMLDocumentFormat::new),
+
+    FUNCTIONAL("functional", "ofn", FunctionalSyntaxDocumentFormat::new),
+
+    TURTLE("turtle", "ttl", TurtleDocumentFormat::new),
+
+    JSON_LD("json-ld", "jsonld", RDFJsonLDDocumentFormat::new);
+
+    private final String name;
+
+    private final String extension;
+
+    private final Supplier<OWLDocumentFormat> documentFormat;
+
+    OutputFormat(String name, String extension, Supplier<OWLDocumentFormat> documentFormat) {
+        this.name = name;
+        this.extension = extension;
+        this.documentFormat = documentFormat;
+    }
+
+    /**
+     * Gets a format by name.
+     *
+     * @param name The name of the format: rdf-xml, functional, turtle or json-ld.
+     * @throws IllegalArgumentException If there is no format with the name.
+     */
+    public static OutputFormat forName(String name) {
+        for (var format : values()) {
+            if (format.name.equalsIgnoreCase(name.strip())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown output format: " + name);
+    }
+
+    /**
+     * @return The name of the format, as accepted by {@link #forName(String)}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The file extension for the format, without a leading dot.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Creates the OWL API document format for this format.  A new instance is created each time, because
+     * document formats are mutable.
+     */
+    public OWLDocumentFormat createDocumentFormat() {
+        return documentFormat.get();
+    }
+}
@@ -0,0 +1,65 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.vocab.SKOSVocabulary;
+
+/**
+ * The properties and classes that the axioms for every data dictionary are built from.  They are created once,
+ * from a single data factory, so that generating the axioms for a record only creates the entities that are
+ * specific to the record.
+ * <p>
+ * Instances are immutable and may be shared by threads.
+ */
+final class RadxVocabulary {
+
+    /**
+     * The namespace of the entities that are generated for data dictionaries.
+     */
+    static final String PREFIX = "https://bmir-radx.github.io/";
+
+    final OWLAnnotationProperty label;
+
+    final OWLAnnotationProperty seeAlso;
+
+    final OWLAnnotationProperty altLabel;
+
+    final OWLAnnotationProperty definition;
+
+    final OWLAnnotationProperty identifier;
+
+    final OWLAnnotationProperty text;
+
+    final OWLAnnotationProperty value;
+
+    final OWLAnnotationProperty isInSection;
+
+    final OWLObjectProperty isAssociatedWith;
+
+    final OWLClass dataElement;
+
+    final OWLClass dataElementSection;
+
+    final OWLClass dataElementValue;
+
+    final OWLClass otherThing;
+
+    RadxVocabulary(OWLDataFactory dataFactory) {
+        label = dataFactory.getRDFSLabel();
+        seeAlso = dataFactory.getRDFSSeeAlso();
+        altLabel = dataFactory.getOWLAnnotationProperty(SKOSVocabulary.ALTLABEL.getIRI());
+        definition = dataFactory.getOWLAnnotationProperty(SKOSVocabulary.DEFINITION.getIRI());
+        identifier = dataFactory.getOWLAnnotationProperty(IRI.create("https://schema.org/identifier"));
+        text = dataFactory.getOWLAnnotationProperty(IRI.create("https://schema.org/text"));
+        value = dataFactory.getOWLAnnotationProperty(IRI.create("https://schema.org/value"));
+        isInSection = dataFactory.getOWLAnnotationProperty(IRI.create(PREFIX + "isInSection"));
+        isAssociatedWith = dataFactory.getOWLObjectProperty(IRI.create(PREFIX + "isAssociatedWith"));
+        dataElement = dataFactory.getOWLClass(IRI.create(PREFIX, "DataElement"));
+        dataElementSection = dataFactory.getOWLClass(IRI.create(PREFIX + "DataElementSection"));
+        dataElementValue = dataFactory.getOWLClass(IRI.create(PREFIX + "DataElementValue"));
+        otherThing = dataFactory.getOWLClass(IRI.create(PREFIX + "OtherThing"));
+    }
+}
@@ -0,0 +1,255 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static edu.stanford.bmir.radx.radxdict2ont.Fingerprints.hash;
+import static edu.stanford.bmir.radx.radxdict2ont.Fingerprints.newDigest;
+import static edu.stanford.bmir.radx.radxdict2ont.Fingerprints.update;
+
+/**
+ * A local, content-addressed cache of data dictionaries and of the ontologies that were generated from them, so
+ * that a run whose inputs have not changed since an earlier run can reuse that run's output.
+ * <p>
+ * Data dictionaries that are fetched over HTTP are stored by the SHA-256 hash of their bytes, together with the
+ * {@code ETag} and {@code Last-Modified} headers of the response.  A later fetch of the same URL sends these back
+ * as a conditional request, and a {@code 304 Not Modified} response is answered from the stored copy.  Other URLs,
+ * such as file URLs, are read in full each time.
+ * <p>
+ * Generated outputs are stored under a generation key, which is a hash of the data dictionary bytes, the tool
+ * build, the bytes of the bundled ontology exports and resources, and the output settings.  Entries are
+ * written to a temporary location and moved into place, so concurrent runs that share a cache directory never
+ * see a partly written entry.
+ * <p>
+ * The layout of the cache directory is:
+ * <pre>
+ * sources/&lt;hash of URL&gt;.json    the validators and content hash of a fetched URL
+ * blobs/&lt;content hash&gt;            the bytes of a fetched data dictionary
+ * outputs/&lt;generation key&gt;/&lt;n&gt;   the n-th output file of a run
+ * </pre>
+ */
+public class RunCache {
+
+    private final Path directory;
+
+    private final String toolVersion;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param directory The cache directory.  It is created when it is first written to.
+     * @param toolVersion Identifies the build of this tool.  Outputs are only reused by runs of the same build.
+     */
+    public RunCache(Path directory, String toolVersion) {
+        this.directory = directory;
+        this.toolVersion = Objects.requireNonNull(toolVersion);
+    }
+
+    /**
+     * Creates a cache for the running build of this tool.
+     *
+     * @param directory The cache directory.
+     * @return The cache, or empty if the build cannot be identified, for example when running from an IDE, so that
+     *         outputs of another build could be reused by mistake.
+     */
+    public static Optional<RunCache> forCurrentBuild(Path directory) {
+        return Optional.ofNullable(Fingerprints.getToolVersion()).map(version -> new RunCache(directory, version));
+    }
+
+    /**
+     * Fetches the bytes of a data dictionary.
+     *
+     * @param url The URL of the data dictionary.
+     * @return The bytes and their hash.
+     * @throws IOException If the data dictionary could not be fetched.
+     */
+    public Fetched fetch(URL url) throws IOException {
+        var connection = url.openConnection();
+        if (!(connection instanceof HttpURLConnection http)) {
+            try (var in = connection.getInputStream()) {
+                var bytes = in.readAllBytes();
+                return new Fetched(bytes, hash(bytes), false);
+            }
+        }
+        var urlHash = hash(url.toString().getBytes(StandardCharsets.UTF_8));
+        var sourcePath = directory.resolve("sources").resolve(urlHash + ".json");
+        var previous = readSource(sourcePath);
+        if (previous != null) {
+            if (previous.etag() != null) {
+                http.setRequestProperty("If-None-Match", previous.etag());
+            }
+            if (previous.lastModified() != null) {
+                http.setRequestProperty("If-Modified-Since", previous.lastModified());
+            }
+        }
+        try {
+            var status = http.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && previous != null) {
+                return new Fetched(Files.readAllBytes(getBlobPath(previous.contentHash())), previous.contentHash(), true);
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Could not fetch " + url + ": HTTP " + status);
+            }
+            byte[] bytes;
+            try (var in = http.getInputStream()) {
+                bytes = in.readAllBytes();
+            }
+            var contentHash = hash(bytes);
+            var blobPath = getBlobPath(contentHash);
+            if (!Files.exists(blobPath)) {
+                writeAtomically(blobPath, bytes);
+            }
+            var source = new Source(url.toString(),
+                                    http.getHeaderField("ETag"),
+                                    http.getHeaderField("Last-Modified"),
+                                    contentHash);
+            if (source.etag() != null || source.lastModified() != null) {
+                writeAtomically(sourcePath, objectMapper.writeValueAsBytes(source));
+            }
+            return new Fetched(bytes, contentHash, false);
+        } finally {
+            http.disconnect();
+        }
+    }
+
+    /**
+     * Computes the key that the outputs of a run are stored under.
+     *
+     * @param contentHash The hash of the data dictionary, as returned by {@link #fetch(URL)}.
+     * @param settings A description of the settings that affect the outputs.
+     * @return The generation key.
+     */
+    public String getGenerationKey(String contentHash, List<String> settings) {
+        var digest = newDigest();
+        update(digest, contentHash);
+        update(digest, toolVersion);
+        update(digest, Fingerprints.getBundledInputsKey());
+        for (var setting : settings) {
+            update(digest, setting);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Copies the outputs that are stored under a generation key to their destinations.
+     *
+     * @param generationKey The generation key.
+     * @param outputs The destinations of the outputs, in the order in which they were stored.
+     * @return true if the outputs were found and copied, or false if they are not in the cache.
+     * @throws IOException If the outputs could not be copied.
+     */
+    public boolean restore(String generationKey, List<Path> outputs) throws IOException {
+        var entry = directory.resolve("outputs").resolve(generationKey);
+        for (int i = 0; i < outputs.size(); i++) {
+            if (!Files.isRegularFile(entry.resolve(Integer.toString(i)))) {
+                return false;
+            }
+        }
+        for (int i = 0; i < outputs.size(); i++) {
+            var output = outputs.get(i).toAbsolutePath();
+            Files.createDirectories(output.getParent());
+            Files.copy(entry.resolve(Integer.toString(i)), output, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    /**
+     * Stores the outputs of a run under a generation key.  If outputs are already stored under the key then they
+     * are kept.
+     *
+     * @param generationKey The generation key.
+     * @param outputs The outputs of the run.
+     * @throws IOException If the outputs could not be stored.
+     */
+    public void store(String generationKey, List<Path> outputs) throws IOException {
+        var outputsDirectory = Files.createDirectories(directory.resolve("outputs"));
+        var entry = outputsDirectory.resolve(generationKey);
+        if (Files.exists(entry)) {
+            return;
+        }
+        var temporary = Files.createTempDirectory(outputsDirectory, generationKey + ".");
+        try {
+            for (int i = 0; i < outputs.size(); i++) {
+                Files.copy(outputs.get(i), temporary.resolve(Integer.toString(i)));
+            }
+            Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (!Files.exists(entry)) {
+                throw e;
+            }
+            // A concurrent run stored the same outputs
+        } finally {
+            deleteRecursively(temporary);
+        }
+    }
+
+    private Source readSource(Path sourcePath) throws IOException {
+        if (!Files.isRegularFile(sourcePath)) {
+            return null;
+        }
+        var source = objectMapper.readValue(sourcePath.toFile(), Source.class);
+        return Files.isRegularFile(getBlobPath(source.contentHash())) ? source : null;
+    }
+
+    private Path getBlobPath(String contentHash) {
+        return directory.resolve("blobs").resolve(contentHash);
+    }
+
+    private static void writeAtomically(Path path, byte[] bytes) throws IOException {
+        var parent = Files.createDirectories(path.getParent());
+        var temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, bytes);
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (var paths = Files.walk(path)) {
+            for (var p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /**
+     * A fetched data dictionary.
+     *
+     * @param bytes The bytes of the data dictionary.
+     * @param contentHash The SHA-256 hash of the bytes.
+     * @param notModified true if the server reported that the data dictionary had not changed since it was last
+     *                    fetched, and the bytes were read from the cache.
+     */
+    public record Fetched(byte[] bytes, String contentHash, boolean notModified) {
+
+    }
+
+    /**
+     * The validators of a URL that was fetched over HTTP, and the hash of its content.
+     */
+    record Source(String url, String etag, String lastModified, String contentHash) {
+
+    }
+}
@@ -0,0 +1,154 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns term IRIs to dense int ids.  Each IRI is split into a namespace prefix, such as
+ * {@code http://purl.obolibrary.org/obo/HP_}, and a local name.  Prefixes are stored once and shared by
+ * every term in the namespace, so only the short local names are held per term.  IRIs are looked up through
+ * an open-addressing hash table of ids, which avoids boxing and avoids materializing the full IRI strings.
+ * <p>
+ * Instances are not thread safe while they are being populated, but are safe for concurrent readers once
+ * they have been safely published.
+ */
+class TermDictionary {
+
+    private static final int NONE = -1;
+
+    private final List<String> prefixes = new ArrayList<>();
+
+    private final Map<String, Integer> prefixIndexes = new HashMap<>();
+
+    private int[] termPrefixes = new int[1024];
+
+    private String[] termLocalNames = new String[1024];
+
+    private int[] termHashes = new int[1024];
+
+    private int size;
+
+    private int[] table = newTable(2048);
+
+    /**
+     * @return The number of interned IRIs.  Ids range from zero to one less than this number.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the id of an IRI, assigning a new id if the IRI has not been seen before.
+     */
+    int intern(String iri) {
+        var hash = iri.hashCode();
+        var slot = findSlot(iri, hash);
+        if (table[slot] != NONE) {
+            return table[slot];
+        }
+        var id = size;
+        ensureCapacity(id + 1);
+        var split = splitPoint(iri);
+        termPrefixes[id] = internPrefix(iri.substring(0, split));
+        termLocalNames[id] = iri.substring(split);
+        termHashes[id] = hash;
+        table[slot] = id;
+        size++;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the id of an IRI.
+     *
+     * @return The id, or -1 if the IRI has not been interned.
+     */
+    int find(String iri) {
+        return table[findSlot(iri, iri.hashCode())];
+    }
+
+    /**
+     * Gets the full IRI for an id.
+     */
+    String getIri(int id) {
+        return prefixes.get(termPrefixes[id]).concat(termLocalNames[id]);
+    }
+
+    private int findSlot(String iri, int hash) {
+        var mask = table.length - 1;
+        var slot = mix(hash) & mask;
+        while (table[slot] != NONE) {
+            var id = table[slot];
+            if (termHashes[id] == hash && matches(id, iri)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean matches(int id, String iri) {
+        var prefix = prefixes.get(termPrefixes[id]);
+        var localName = termLocalNames[id];
+        return iri.length() == prefix.length() + localName.length()
+                && iri.startsWith(prefix)
+                && iri.regionMatches(prefix.length(), localName, 0, localName.length());
+    }
+
+    private int internPrefix(String prefix) {
+        return prefixIndexes.computeIfAbsent(prefix, p -> {
+            prefixes.add(p);
+            return prefixes.size() - 1;
+        });
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > termLocalNames.length) {
+            var newLength = Math.max(capacity, termLocalNames.length * 2);
+            termPrefixes = Arrays.copyOf(termPrefixes, newLength);
+            termLocalNames = Arrays.copyOf(termLocalNames, newLength);
+            termHashes = Arrays.copyOf(termHashes, newLength);
+        }
+    }
+
+    private void rehash(int tableLength) {
+        table = newTable(tableLength);
+        var mask = tableLength - 1;
+        for (int id = 0; id < size; id++) {
+            var slot = mix(termHashes[id]) & mask;
+            while (table[slot] != NONE) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id;
+        }
+    }
+
+    private static int[] newTable(int length) {
+        var table = new int[length];
+        Arrays.fill(table, NONE);
+        return table;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Splits an IRI after the last '#', '/' or '_', which separates the namespace from the local id for
+     * both OBO PURLs and hash-style IRIs such as those used by NCIT.
+     */
+    private static int splitPoint(String iri) {
+        for (int i = iri.length() - 1; i >= 0; i--) {
+            var ch = iri.charAt(i);
+            if (ch == '#' || ch == '/' || ch == '_') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
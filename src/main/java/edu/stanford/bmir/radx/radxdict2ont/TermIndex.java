@@ -0,0 +1,363 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.semanticweb.owlapi.model.IRI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index over the labels and synonyms of the terms in an {@link OntCsvCache}, which finds the terms
+ * whose names best match a piece of free text, such as the label of a data element.
+ * <p>
+ * Names are split into lower case word tokens, and each token has a posting list of the names that contain it.
+ * A query is answered by walking the posting lists of its tokens, so its cost depends on how many names share
+ * its tokens rather than on the size of the index.  Names are ranked by the cosine similarity of their tokens to
+ * the query's tokens, with each token weighted by its inverse document frequency, so that rare words count for
+ * more than common ones.  A query token that is not in the index, such as a misspelling or a different
+ * inflection, is matched to the indexed tokens that share most of its character trigrams, at a weight that is
+ * reduced by their dissimilarity.
+ * <p>
+ * Instances are immutable and may be searched by concurrent threads.
+ */
+public class TermIndex {
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "did",
+                                                         "do", "does", "for", "from", "has", "have", "how", "in",
+                                                         "is", "it", "of", "on", "or", "that", "the", "this",
+                                                         "to", "was", "were", "what", "which", "with", "you",
+                                                         "your");
+
+    private static final int MIN_FUZZY_TOKEN_LENGTH = 4;
+
+    private static final double MIN_FUZZY_SIMILARITY = 0.6;
+
+    private static final int MAX_FUZZY_EXPANSIONS = 3;
+
+    private final String[] termIris;
+
+    private final String[] termLabels;
+
+    private final String[] names;
+
+    private final int[] nameTerms;
+
+    private final float[] nameNorms;
+
+    private final Map<String, Integer> tokenIds;
+
+    private final int[][] postings;
+
+    private final float[] idfs;
+
+    private final Map<String, int[]> trigramPostings;
+
+    private final int[] trigramCounts;
+
+    /**
+     * The score of each name for the current query, which is reused by the queries on each thread so that a
+     * query does not allocate an array the size of the index.  Only the scores of touched names are non-zero,
+     * and they are reset when the query completes.
+     */
+    private final ThreadLocal<float[]> scoreBuffers;
+
+    private TermIndex(String[] termIris,
+                      String[] termLabels,
+                      String[] names,
+                      int[] nameTerms,
+                      float[] nameNorms,
+                      Map<String, Integer> tokenIds,
+                      int[][] postings,
+                      float[] idfs,
+                      Map<String, int[]> trigramPostings,
+                      int[] trigramCounts) {
+        this.termIris = termIris;
+        this.termLabels = termLabels;
+        this.names = names;
+        this.nameTerms = nameTerms;
+        this.nameNorms = nameNorms;
+        this.tokenIds = tokenIds;
+        this.postings = postings;
+        this.idfs = idfs;
+        this.trigramPostings = trigramPostings;
+        this.trigramCounts = trigramCounts;
+        this.scoreBuffers = ThreadLocal.withInitial(() -> new float[names.length]);
+    }
+
+    /**
+     * Builds an index over the labels and synonyms of every term in a cache.
+     *
+     * @param cache The cache.  Every source of the cache is loaded.
+     */
+    public static TermIndex build(OntCsvCache cache) {
+        var termIds = cache.getTermIds().stream().sorted().toList();
+        var termIris = new String[termIds.size()];
+        var termLabels = new String[termIds.size()];
+        var names = new ArrayList<String>();
+        var nameTerms = new IntList();
+        var nameTokens = new ArrayList<int[]>();
+        var tokenIds = new HashMap<String, Integer>();
+        var tokens = new ArrayList<String>();
+        var postings = new ArrayList<IntList>();
+        for (int term = 0; term < termIds.size(); term++) {
+            var termIri = termIds.get(term);
+            termIris[term] = termIri;
+            termLabels[term] = cache.getLabel(IRI.create(termIri)).orElse("");
+            var termNames = new LinkedHashSet<String>();
+            termNames.add(termLabels[term]);
+            termNames.addAll(cache.getSynonyms(termIri));
+            for (var name : termNames) {
+                var nameTokenStrings = tokenize(name);
+                if (nameTokenStrings.isEmpty()) {
+                    continue;
+                }
+                var nameId = names.size();
+                names.add(name);
+                nameTerms.add(term);
+                var ids = new int[nameTokenStrings.size()];
+                var i = 0;
+                for (var token : nameTokenStrings) {
+                    var tokenId = tokenIds.computeIfAbsent(token, t -> {
+                        tokens.add(t);
+                        postings.add(new IntList());
+                        return tokens.size() - 1;
+                    });
+                    postings.get(tokenId).add(nameId);
+                    ids[i++] = tokenId;
+                }
+                nameTokens.add(ids);
+            }
+        }
+
+        var idfs = new float[tokens.size()];
+        var postingArrays = new int[tokens.size()][];
+        for (int token = 0; token < tokens.size(); token++) {
+            postingArrays[token] = postings.get(token).toArray();
+            idfs[token] = idf(names.size(), postingArrays[token].length);
+        }
+        var nameNorms = new float[names.size()];
+        for (int name = 0; name < names.size(); name++) {
+            var sum = 0.0;
+            for (var token : nameTokens.get(name)) {
+                sum += idfs[token] * idfs[token];
+            }
+            nameNorms[name] = (float) Math.sqrt(sum);
+        }
+        var trigramTokens = new HashMap<String, IntList>();
+        var trigramCounts = new int[tokens.size()];
+        for (int token = 0; token < tokens.size(); token++) {
+            var trigrams = trigrams(tokens.get(token));
+            trigramCounts[token] = trigrams.size();
+            for (var trigram : trigrams) {
+                trigramTokens.computeIfAbsent(trigram, t -> new IntList()).add(token);
+            }
+        }
+        var trigramPostings = new HashMap<String, int[]>(trigramTokens.size() * 2);
+        trigramTokens.forEach((trigram, tokenList) -> trigramPostings.put(trigram, tokenList.toArray()));
+
+        return new TermIndex(termIris,
+                             termLabels,
+                             names.toArray(String[]::new),
+                             nameTerms.toArray(),
+                             nameNorms,
+                             tokenIds,
+                             postingArrays,
+                             idfs,
+                             trigramPostings,
+                             trigramCounts);
+    }
+
+    /**
+     * @return The number of labels and synonyms in the index.
+     */
+    public int getNameCount() {
+        return names.length;
+    }
+
+    /**
+     * Finds the terms whose names best match some text.
+     *
+     * @param text The text.
+     * @param limit The maximum number of terms to return.
+     * @return The best matching terms, best first.  Each term appears once, with its best matching name.
+     */
+    public List<Match> search(String text, int limit) {
+        var queryTokens = tokenize(text);
+        if (queryTokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        var scores = scoreBuffers.get();
+        var touched = new IntList();
+        try {
+            return search(queryTokens, limit, scores, touched);
+        } finally {
+            for (int i = 0; i < touched.size(); i++) {
+                scores[touched.get(i)] = 0;
+            }
+        }
+    }
+
+    private List<Match> search(Set<String> queryTokens, int limit, float[] scores, IntList touched) {
+        var queryNormSquared = 0.0;
+        for (var queryToken : queryTokens) {
+            var tokenId = tokenIds.get(queryToken);
+            if (tokenId != null) {
+                queryNormSquared += idfs[tokenId] * idfs[tokenId];
+                accumulate(tokenId, 1.0f, scores, touched);
+                continue;
+            }
+            // A token that is in no name weighs as much as the rarest indexed token
+            var unknownIdf = idf(names.length, 1);
+            queryNormSquared += unknownIdf * unknownIdf;
+            for (var expansion : expand(queryToken)) {
+                accumulate(expansion.token(), (float) expansion.similarity(), scores, touched);
+            }
+        }
+        if (touched.size() == 0) {
+            return List.of();
+        }
+
+        var queryNorm = (float) Math.sqrt(queryNormSquared);
+        var bestNames = new HashMap<Integer, Integer>();
+        for (int i = 0; i < touched.size(); i++) {
+            var name = touched.get(i);
+            scores[name] /= queryNorm * nameNorms[name];
+            bestNames.merge(nameTerms[name], name, (a, b) -> scores[a] >= scores[b] ? a : b);
+        }
+        return bestNames.values()
+                        .stream()
+                        .sorted(Comparator.<Integer>comparingDouble(name -> scores[name])
+                                          .reversed()
+                                          .thenComparing(name -> termIris[nameTerms[name]]))
+                        .limit(limit)
+                        .map(name -> new Match(termIris[nameTerms[name]],
+                                               termLabels[nameTerms[name]],
+                                               names[name],
+                                               scores[name]))
+                        .toList();
+    }
+
+    private void accumulate(int token, float weight, float[] scores, IntList touched) {
+        var idfSquared = idfs[token] * idfs[token] * weight;
+        for (var name : postings[token]) {
+            if (scores[name] == 0) {
+                touched.add(name);
+            }
+            scores[name] += idfSquared;
+        }
+    }
+
+    /**
+     * Finds the indexed tokens that share most of the character trigrams of a token that is not indexed.
+     */
+    private List<Expansion> expand(String token) {
+        if (token.length() < MIN_FUZZY_TOKEN_LENGTH) {
+            return List.of();
+        }
+        var queryTrigrams = trigrams(token);
+        var shared = new HashMap<Integer, Integer>();
+        for (var trigram : queryTrigrams) {
+            var candidates = trigramPostings.get(trigram);
+            if (candidates != null) {
+                for (var candidate : candidates) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        var expansions = new ArrayList<Expansion>();
+        shared.forEach((candidate, count) -> {
+            // The Dice coefficient of the two trigram sets
+            var similarity = 2.0 * count / (queryTrigrams.size() + trigramCounts[candidate]);
+            if (similarity >= MIN_FUZZY_SIMILARITY) {
+                expansions.add(new Expansion(candidate, similarity));
+            }
+        });
+        expansions.sort(Comparator.comparingDouble(Expansion::similarity).reversed());
+        return expansions.size() > MAX_FUZZY_EXPANSIONS ? expansions.subList(0, MAX_FUZZY_EXPANSIONS) : expansions;
+    }
+
+    /**
+     * Splits text into distinct lower case tokens of letters and digits, without stop words.
+     */
+    static Set<String> tokenize(String text) {
+        var tokens = new LinkedHashSet<String>();
+        var start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            var letterOrDigit = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letterOrDigit && start == -1) {
+                start = i;
+            }
+            else if (!letterOrDigit && start != -1) {
+                var token = text.substring(start, i).toLowerCase();
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigrams(String token) {
+        var padded = "^" + token + "$";
+        var trigrams = new LinkedHashSet<String>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static float idf(int nameCount, int documentFrequency) {
+        return (float) Math.log(1.0 + (double) nameCount / documentFrequency);
+    }
+
+    /**
+     * A term that matches a query.
+     *
+     * @param termIri The IRI of the term.
+     * @param label The preferred label of the term.
+     * @param name The label or synonym of the term that matches the query best.
+     * @param score The cosine similarity of the name to the query, between 0 and 1.
+     */
+    public record Match(String termIri, String label, String name, double score) {
+
+    }
+
+    private record Expansion(int token, double similarity) {
+
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static class IntList {
+
+        private int[] values = new int[4];
+
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
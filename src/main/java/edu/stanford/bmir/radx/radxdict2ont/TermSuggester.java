@@ -0,0 +1,152 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryRecord;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Suggests terms for the records of a data dictionary that are not associated with any term, so that curators
+ * can review them.  Each unannotated record's label and description are looked up in a {@link TermIndex}.  A
+ * match on the description counts for less than a match on the label, because descriptions are longer and are
+ * often phrased as questions.
+ */
+public class TermSuggester {
+
+    private static final double DESCRIPTION_WEIGHT = 0.5;
+
+    private final TermIndex index;
+
+    private final int limit;
+
+    private final double minScore;
+
+    /**
+     * @param index The index to look up labels and descriptions in.
+     * @param limit The maximum number of suggestions for each record.
+     * @param minScore The minimum score of a suggestion, between 0 and 1.
+     */
+    public TermSuggester(TermIndex index, int limit, double minScore) {
+        this.index = index;
+        this.limit = limit;
+        this.minScore = minScore;
+    }
+
+    /**
+     * Determines whether a record is associated with no terms.
+     */
+    public static boolean isUnannotated(RADxDataDictionaryRecord record) {
+        return record.terms() == null || record.terms().stream().allMatch(term -> term.identifier().isBlank());
+    }
+
+    /**
+     * Suggests terms for each unannotated record.
+     *
+     * @param records The records of a data dictionary.
+     * @return The suggestions for the unannotated records, in record order.
+     */
+    public SuggestionReport suggest(Collection<RADxDataDictionaryRecord> records) {
+        var results = new ArrayList<RecordSuggestions>();
+        var queries = 0;
+        var queryNanos = 0L;
+        for (var record : records) {
+            if (!isUnannotated(record)) {
+                continue;
+            }
+            var suggestions = new LinkedHashMap<String, Suggestion>();
+            var start = System.nanoTime();
+            addSuggestions(record.label(), "label", 1.0, suggestions);
+            addSuggestions(record.description(), "description", DESCRIPTION_WEIGHT, suggestions);
+            queryNanos += System.nanoTime() - start;
+            queries += 2;
+            results.add(new RecordSuggestions(record.id(),
+                                              record.label(),
+                                              suggestions.values()
+                                                         .stream()
+                                                         .sorted(Comparator.comparingDouble(Suggestion::score)
+                                                                           .reversed())
+                                                         .limit(limit)
+                                                         .toList()));
+        }
+        return new SuggestionReport(results.size(),
+                                    (int) results.stream().filter(r -> !r.suggestions().isEmpty()).count(),
+                                    queries == 0 ? 0 : queryNanos / 1000.0 / queries,
+                                    results);
+    }
+
+    private void addSuggestions(String text,
+                                String field,
+                                double weight,
+                                LinkedHashMap<String, Suggestion> suggestions) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        for (var match : index.search(text, limit)) {
+            var score = match.score() * weight;
+            if (score >= minScore) {
+                suggestions.merge(match.termIri(),
+                                  new Suggestion(match.termIri(), match.label(), match.name(), field, score),
+                                  (a, b) -> a.score() >= b.score() ? a : b);
+            }
+        }
+    }
+
+    /**
+     * Writes a JSON report of suggestions for review.
+     *
+     * @param report The suggestions.
+     * @param path The path of the report.
+     * @throws IOException If the report could not be written.
+     */
+    public static void writeReport(SuggestionReport report, Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    /**
+     * A suggested term.
+     *
+     * @param termIri The IRI of the term.
+     * @param label The preferred label of the term.
+     * @param matchedName The label or synonym of the term that matched.
+     * @param matchedField The field of the record that matched: label or description.
+     * @param score The score of the match, between 0 and 1.
+     */
+    public record Suggestion(String termIri, String label, String matchedName, String matchedField, double score) {
+
+    }
+
+    /**
+     * The suggestions for an unannotated record.
+     *
+     * @param id The id of the record.
+     * @param label The label of the record.
+     * @param suggestions The suggested terms, best first.  Empty if no term matched well enough.
+     */
+    public record RecordSuggestions(String id, String label, List<Suggestion> suggestions) {
+
+    }
+
+    /**
+     * The suggestions for a data dictionary.
+     *
+     * @param unannotatedRecords The number of records that are associated with no terms.
+     * @param recordsWithSuggestions The number of unannotated records for which terms were suggested.
+     * @param meanQueryMicros The mean time taken to look up a label or description, in microseconds.
+     * @param records The suggestions for each unannotated record.
+     */
+    public record SuggestionReport(int unannotatedRecords,
+                                   int recordsWithSuggestions,
+                                   double meanQueryMicros,
+                                   List<RecordSuggestions> records) {
+
+    }
+}
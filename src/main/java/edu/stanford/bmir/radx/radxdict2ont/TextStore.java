@@ -0,0 +1,52 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+/**
+ * Holds the synonyms and definitions of the terms in an {@link InMemoryOntCsvCache}.  These are the bulkiest
+ * values in an export, and most of them are never looked up, so a store may keep them somewhere other than
+ * the heap (see {@link CompressedTextStore}).  Labels and parents are always held on the heap by the cache.
+ * <p>
+ * Values are added by a single loading thread, and may then be read by concurrent threads.  The loading thread
+ * calls {@link #finish()} once it has added every value, and the owner of the store closes it when the store is
+ * no longer needed.
+ */
+public interface TextStore extends AutoCloseable {
+
+    /**
+     * Creates a store that keeps values on the heap, as they are added.
+     */
+    static TextStore onHeap() {
+        return new HeapTextStore();
+    }
+
+    /**
+     * Adds values to this store.
+     *
+     * @param values The values.  The array must not be modified after it is added.
+     * @return The entry that the values can be retrieved with.
+     */
+    int add(String[] values);
+
+    /**
+     * Gets the values of an entry.
+     *
+     * @param entry The entry, as returned by {@link #add(String[])}.
+     * @return The values.  The array must not be modified.
+     */
+    String[] get(int entry);
+
+    /**
+     * Signals that no more values will be added, so that any resources that are only needed for adding values
+     * can be released.  The default implementation does nothing.
+     */
+    default void finish() {
+    }
+
+    /**
+     * Releases the resources that are held by this store.  The default implementation does nothing.
+     *
+     * @throws java.io.UncheckedIOException If the resources could not be released.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,112 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchConverterTests {
+
+    @Test
+    void isolatesFailedInputs(@TempDir Path dir) throws Exception {
+        var inputs = Files.createDirectories(dir.resolve("inputs"));
+        Files.writeString(inputs.resolve("study-a.csv"), "a");
+        Files.writeString(inputs.resolve("study-b.csv"), "b");
+        Files.writeString(inputs.resolve("notes.txt"), "ignored");
+        var manifest = Files.writeString(dir.resolve("manifest.txt"), "# Studies\ninputs/study-a.csv\n\ninputs/study-b.csv\n");
+        var parser = mock(RADxDataDictionaryParser.class);
+        when(parser.parse(any(), any())).thenReturn(mock(RADxDataDictionary.class));
+        var converter = new BatchConverter(parser, (dataDictionary, output) -> {
+            if (output.getFileName().toString().startsWith("study-b")) {
+                Files.writeString(output, "partial");
+                throw new NumberFormatException("For input string: \"unknown\"");
+            }
+            Files.writeString(output, "ontology");
+        }, 2);
+
+        assertThat(BatchConverter.readInputs(inputs)).isEqualTo(BatchConverter.readInputs(manifest));
+        var outputs = dir.resolve("outputs");
+        var summary = converter.convert(BatchConverter.readInputs(manifest), outputs);
+
+        assertThat(summary.succeeded()).isEqualTo(1);
+        assertThat(summary.failed()).isEqualTo(1);
+        assertThat(summary.inputs().get(0).outputs()).containsExactly(outputs.resolve("study-a.owl").toString());
+        assertThat(summary.inputs().get(1).outputs()).isEmpty();
+        assertThat(summary.inputs().get(1).error()).contains("NumberFormatException");
+        assertThat(outputs.resolve("study-a.owl")).hasContent("ontology");
+        assertThat(outputs.resolve("study-b.owl")).doesNotExist();
+        assertThat(outputs.resolve(BatchConverter.SUMMARY_FILE_NAME)).exists();
+    }
+
+    @Test
+    void deletesEveryFileOfAFailedInput(@TempDir Path dir) throws Exception {
+        var input = Files.writeString(dir.resolve("study.csv"), "a");
+        var parser = mock(RADxDataDictionaryParser.class);
+        when(parser.parse(any(), any())).thenReturn(mock(RADxDataDictionary.class));
+        Function<Path, List<Path>> outputFiles = output -> List.of(output, output.resolveSibling("study.ttl.gz"));
+        var converter = new BatchConverter(parser, (dataDictionary, output) -> {
+            for (var file : outputFiles.apply(output)) {
+                Files.writeString(file, "partial");
+            }
+            throw new IllegalStateException("Could not write Turtle");
+        }, 1, outputFiles);
+
+        var outputs = dir.resolve("outputs");
+        converter.convert(List.of(input.toUri().toURL()), outputs);
+
+        assertThat(outputs.resolve("study.owl")).doesNotExist();
+        assertThat(outputs.resolve("study.ttl.gz")).doesNotExist();
+    }
+
+    @Test
+    void reportsEveryFileOfAnInput(@TempDir Path dir) throws Exception {
+        var input = Files.writeString(dir.resolve("study.csv"), "a");
+        var parser = mock(RADxDataDictionaryParser.class);
+        when(parser.parse(any(), any())).thenReturn(mock(RADxDataDictionary.class));
+        Function<Path, List<Path>> outputFiles = output -> List.of(output.resolveSibling("study.ttl.gz"),
+                                                                   output.resolveSibling("study.ofn.gz"));
+        var converter = new BatchConverter(parser, (dataDictionary, output) -> {
+            for (var file : outputFiles.apply(output)) {
+                Files.writeString(file, "ontology");
+            }
+        }, 1, outputFiles);
+
+        var outputs = dir.resolve("outputs");
+        var summary = converter.convert(List.of(input.toUri().toURL()), outputs);
+
+        assertThat(summary.inputs().get(0).outputs()).containsExactly(outputs.resolve("study.ttl.gz").toString(),
+                                                                      outputs.resolve("study.ofn.gz").toString());
+    }
+
+    @Test
+    void numbersClashingOutputsAwayFromOtherInputs(@TempDir Path dir) throws Exception {
+        var inputs = List.of(Files.writeString(Files.createDirectories(dir.resolve("a")).resolve("study.csv"), "a"),
+                             Files.writeString(Files.createDirectories(dir.resolve("b")).resolve("study.csv"), "b"),
+                             Files.writeString(dir.resolve("study-2.csv"), "c"),
+                             Files.writeString(dir.resolve("summary.csv"), "d"));
+        var parser = mock(RADxDataDictionaryParser.class);
+        when(parser.parse(any(), any())).thenReturn(mock(RADxDataDictionary.class));
+        var converter = new BatchConverter(parser, (dataDictionary, output) -> Files.writeString(output, "ontology"), 2);
+
+        var urls = new ArrayList<URL>();
+        for (var input : inputs) {
+            urls.add(input.toUri().toURL());
+        }
+        var summary = converter.convert(urls, dir.resolve("outputs"));
+
+        assertThat(summary.inputs()).extracting(result -> Path.of(result.outputs().get(0)).getFileName().toString())
+                                    .containsExactly("study.owl", "study-3.owl", "study-2.owl", "summary-4.owl");
+    }
+}
@@ -0,0 +1,93 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryRecord;
+import edu.stanford.bmir.radx.datadictionary.lib.TermIdentifier;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryClassifierTests {
+
+    private static final String PREFIX = "https://bmir-radx.github.io/";
+
+    @Test
+    void materializesCategoriesOfAssociatedTermsAndTheirAncestors() throws Exception {
+        var cache = new InMemoryOntCsvCache();
+        cache.load(OntCsvSource.SYMP.openStream());
+        var dataFactory = new OWLDataFactoryImpl();
+        var createAxioms = new CreateAxioms(dataFactory,
+                                            cache,
+                                            GenerationMetrics.createDefault(),
+                                            CurieResolver.createDefault(),
+                                            CategoryClassifier.loadDefault());
+        var records = List.of(record("swelling", "SYMP:0000821"),
+                              record("musculoskeletal", "SYMP:0000891"),
+                              record("unassociated"));
+        var dataDictionary = mock(RADxDataDictionary.class);
+        when(dataDictionary.records()).thenReturn(records);
+
+        var axioms = createAxioms.createAxioms(dataDictionary);
+
+        assertThat(getCategories(axioms, "swelling")).containsExactlyInAnyOrder("RespiratorySymptomDataElement",
+                                                                                "SymptomDataElement");
+        assertThat(getCategories(axioms, "musculoskeletal")).containsExactly("SymptomDataElement");
+        assertThat(getCategories(axioms, "unassociated")).isEmpty();
+    }
+
+    @Test
+    void findsCategoryDefinitions() throws Exception {
+        var classifier = CategoryClassifier.loadDefault();
+
+        assertThat(classifier.getCategories()).extracting(cls -> cls.getIRI().getShortForm())
+                                              .contains("CancerDataElement", "SymptomDataElement")
+                                              .doesNotHaveDuplicates();
+        assertThat(classifier.getTargetCategories(IRI.create("http://purl.obolibrary.org/obo/SYMP_0000462"))
+                             .cardinality()).isEqualTo(1);
+    }
+
+    private static RADxDataDictionaryRecord record(String id, String... terms) {
+        var record = mock(RADxDataDictionaryRecord.class);
+        when(record.id()).thenReturn(id);
+        when(record.label()).thenReturn("");
+        when(record.description()).thenReturn("");
+        when(record.section()).thenReturn("");
+        var termIdentifiers = new ArrayList<TermIdentifier>();
+        for (var term : terms) {
+            var termIdentifier = mock(TermIdentifier.class);
+            when(termIdentifier.identifier()).thenReturn(term);
+            termIdentifiers.add(termIdentifier);
+        }
+        when(record.terms()).thenReturn(termIdentifiers);
+        return record;
+    }
+
+    /**
+     * Gets the short names of the named superclasses of a data element, other than DataElement itself.
+     */
+    private static Set<String> getCategories(Set<OWLAxiom> axioms, String id) {
+        return axioms.stream()
+                     .filter(axiom -> axiom instanceof OWLSubClassOfAxiom)
+                     .map(axiom -> (OWLSubClassOfAxiom) axiom)
+                     .filter(axiom -> !axiom.getSubClass().isAnonymous()
+                             && axiom.getSubClass().asOWLClass().getIRI().equals(IRI.create(PREFIX + id)))
+                     .filter(axiom -> !axiom.getSuperClass().isAnonymous())
+                     .map(axiom -> axiom.getSuperClass().asOWLClass())
+                     .map(OWLClass::getIRI)
+                     .map(IRI::getShortForm)
+                     .filter(name -> !name.equals("DataElement"))
+                     .collect(Collectors.toSet());
+    }
+}
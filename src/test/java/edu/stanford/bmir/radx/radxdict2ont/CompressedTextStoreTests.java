@@ -0,0 +1,85 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedTextStoreTests {
+
+    @Test
+    void compressedCacheMatchesHeapCache() throws IOException {
+        var heap = new InMemoryOntCsvCache();
+        heap.load(OntCsvSource.SYMP.openStream());
+        var blockCache = new CompressedTextStore.BlockCache(64 * 1024);
+        try (var store = new CompressedTextStore(blockCache)) {
+            var compressed = new InMemoryOntCsvCache(store);
+            compressed.load(OntCsvSource.SYMP.openStream());
+
+            assertThat(store.getCompressedSize()).isPositive();
+            for (var term : heap.getTermIds()) {
+                assertThat(compressed.getSynonyms(term)).isEqualTo(heap.getSynonyms(term));
+                assertThat(compressed.getDefinition(term)).isEqualTo(heap.getDefinition(term));
+            }
+            assertThat(blockCache.getSizeBytes()).isLessThanOrEqualTo(64 * 1024);
+            assertThat(blockCache.getMisses()).isPositive();
+        }
+    }
+
+    @Test
+    void roundTripsValuesAcrossBlocks() throws IOException {
+        var blockCache = new CompressedTextStore.BlockCache(0);
+        try (var store = new CompressedTextStore(blockCache)) {
+            var entries = new int[5000];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = store.add(new String[]{"value " + i, "sympt\u00f4me " + "x".repeat(i % 300)});
+            }
+            for (int i = 0; i < entries.length; i++) {
+                assertThat(store.get(entries[i])).containsExactly("value " + i, "sympt\u00f4me " + "x".repeat(i % 300));
+            }
+            assertThat(store.add(new String[0])).isEqualTo(entries.length);
+            assertThat(store.get(entries.length)).isEmpty();
+            assertThat(blockCache.getSizeBytes()).isZero();
+        }
+    }
+
+    @Test
+    void finishWritesOpenBlock() {
+        var blockCache = new CompressedTextStore.BlockCache(64 * 1024);
+        try (var store = new CompressedTextStore(blockCache)) {
+            var entry = store.add(new String[]{"fever", "pyrexia"});
+            assertThat(store.getCompressedSize()).isZero();
+
+            store.finish();
+
+            assertThat(store.getCompressedSize()).isPositive();
+            assertThat(store.get(entry)).containsExactly("fever", "pyrexia");
+            assertThatThrownBy(() -> store.add(new String[]{"chills"})).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void closeEvictsOnlyItsOwnBlocks() {
+        var blockCache = new CompressedTextStore.BlockCache(64 * 1024);
+        try (var kept = new CompressedTextStore(blockCache)) {
+            var keptEntry = kept.add(new String[]{"fever"});
+            kept.finish();
+            kept.get(keptEntry);
+            var keptSize = blockCache.getSizeBytes();
+            try (var closed = new CompressedTextStore(blockCache)) {
+                var closedEntry = closed.add(new String[]{"chills", "rigors"});
+                closed.finish();
+                closed.get(closedEntry);
+                assertThat(blockCache.getSizeBytes()).isGreaterThan(keptSize);
+            }
+
+            assertThat(blockCache.getSizeBytes()).isEqualTo(keptSize);
+            var hits = blockCache.getHits();
+            assertThat(kept.get(keptEntry)).containsExactly("fever");
+            assertThat(blockCache.getHits()).isEqualTo(hits + 1);
+        }
+        assertThat(blockCache.getSizeBytes()).isZero();
+    }
+}
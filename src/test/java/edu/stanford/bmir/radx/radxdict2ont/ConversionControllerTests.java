@@ -0,0 +1,123 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConversionControllerTests {
+
+    private final RADxDataDictionaryParser parser = mock(RADxDataDictionaryParser.class);
+
+    private MockMvc newClient(int maxConcurrent, int maxQueued) {
+        var createAxioms = new CreateAxioms(new OWLDataFactoryImpl(), new InMemoryOntCsvCache());
+        var service = new ConversionService(createAxioms, parser, maxConcurrent, maxQueued, 0, 1 << 20, 1 << 20);
+        return MockMvcBuilders.standaloneSetup(new ConversionController(service, 1 << 20)).build();
+    }
+
+    private static RADxDataDictionary emptyDataDictionary() {
+        var dataDictionary = mock(RADxDataDictionary.class);
+        when(dataDictionary.records()).thenReturn(List.of());
+        return dataDictionary;
+    }
+
+    @Test
+    void cachesResultsByInputHash() throws Exception {
+        var dataDictionary = emptyDataDictionary();
+        when(parser.parse(any(), any())).thenReturn(dataDictionary);
+        var client = newClient(2, 2);
+
+        var first = client.perform(post("/convert").content("Id,Label\n"))
+                          .andExpect(status().isOk())
+                          .andExpect(header().string("X-Cache", "MISS"))
+                          .andReturn();
+        client.perform(post("/convert").content("Id,Label\n"))
+              .andExpect(status().isOk())
+              .andExpect(header().string("X-Cache", "HIT"));
+
+        assertThat(first.getResponse().getContentAsString()).startsWith("Prefix(");
+        verify(parser, times(1)).parse(any(), any());
+    }
+
+    @Test
+    void rejectsRequestsBeyondCapacity() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var dataDictionary = emptyDataDictionary();
+        when(parser.parse(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return dataDictionary;
+        });
+        var client = newClient(1, 0);
+
+        var first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.perform(post("/convert").content("first")).andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        client.perform(post("/convert").content("second"))
+              .andExpect(status().isServiceUnavailable())
+              .andExpect(header().exists("Retry-After"));
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+    }
+
+    @Test
+    void rejectsDuplicateRequestsBeyondQueueLimit() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var dataDictionary = emptyDataDictionary();
+        when(parser.parse(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return dataDictionary;
+        });
+        var client = newClient(1, 0);
+
+        var first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.perform(post("/convert").content("same")).andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        client.perform(post("/convert").content("same"))
+              .andExpect(status().isServiceUnavailable())
+              .andExpect(header().exists("Retry-After"));
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+    }
+
+    @Test
+    void rejectsDataDictionariesThatCannotBeParsed() throws Exception {
+        when(parser.parse(any(), any())).thenThrow(new IllegalArgumentException("Missing Id column"));
+        var client = newClient(1, 0);
+
+        client.perform(post("/convert").content("Label\n"))
+              .andExpect(status().isBadRequest());
+    }
+}
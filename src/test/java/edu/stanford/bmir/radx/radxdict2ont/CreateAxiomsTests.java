@@ -0,0 +1,309 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.Enumeration;
+import edu.stanford.bmir.radx.datadictionary.lib.EnumerationChoice;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionary;
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryRecord;
+import edu.stanford.bmir.radx.datadictionary.lib.TermIdentifier;
+import org.apache.commons.text.CaseUtils;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CreateAxiomsTests {
+
+    private static final String PREFIX = "https://bmir-radx.github.io/";
+
+    private static final String OBO = "http://purl.obolibrary.org/obo/";
+
+    /**
+     * SYMP_0000462 is the target of a category of the default classifier.
+     */
+    private static final String CYCLE_A = OBO + "SYMP_9000001";
+
+    private static final String CYCLE_B = OBO + "SYMP_0000462";
+
+    private static final String CYCLE_C = OBO + "SYMP_9000003";
+
+    private static final String CHILD = OBO + "SYMP_9000004";
+
+    /**
+     * A hierarchy with a cycle, A &lt; B &lt; C &lt; A, and a term below the cycle.
+     */
+    private static final OntCsvCache CYCLIC_TERMS = new FixtureCache(Map.of(CYCLE_A, List.of(CYCLE_B),
+                                                                            CYCLE_B, List.of(CYCLE_C),
+                                                                            CYCLE_C, List.of(CYCLE_A),
+                                                                            CHILD, List.of(CYCLE_A)));
+
+    @Test
+    void givesEveryTermOfACycleTheSameClosure() throws Exception {
+        var createAxioms = newCreateAxioms(CYCLIC_TERMS);
+        var viaA = record("viaA", "SYMP:9000001");
+        var viaC = record("viaC", "SYMP:9000003");
+        var viaChild = record("viaChild", "SYMP:9000004");
+
+        var forwards = createAxioms.createAxioms(dataDictionary(viaA, viaC, viaChild));
+        var backwards = createAxioms.createAxioms(dataDictionary(viaChild, viaC, viaA));
+
+        assertThat(forwards).isEqualTo(backwards);
+        for (var id : List.of("viaA", "viaC", "viaChild")) {
+            assertThat(getBackLinks(forwards, id)).contains(CYCLE_A, CYCLE_B, CYCLE_C);
+            assertThat(getCategories(forwards, id)).isNotEmpty();
+        }
+        assertThat(getCategories(forwards, "viaA")).isEqualTo(getCategories(forwards, "viaC"));
+        assertThat(getBackLinks(forwards, "viaA")).doesNotContain(CHILD);
+        assertThat(getBackLinks(forwards, "viaChild")).contains(CHILD);
+    }
+
+    @Test
+    void attributesTheWholeCycleToEachRecord() throws Exception {
+        var createAxioms = newCreateAxioms(CYCLIC_TERMS);
+
+        var recordAxioms = createAxioms.createRecordAxioms(List.of(record("viaA", "SYMP:9000001"),
+                                                                   record("viaC", "SYMP:9000003")));
+
+        var cycleDeclarations = Set.of(CYCLE_A, CYCLE_B, CYCLE_C);
+        for (var axioms : recordAxioms.values()) {
+            assertThat(axioms.stream()
+                             .flatMap(axiom -> axiom.getClassesInSignature().stream())
+                             .map(cls -> cls.getIRI().toString())
+                             .collect(Collectors.toSet())).containsAll(cycleDeclarations);
+        }
+    }
+
+    @Test
+    void parallelOutputIsIdenticalToSequentialOutput() throws Exception {
+        var createAxioms = newCreateAxioms(CYCLIC_TERMS);
+        var terms = List.of("SYMP:9000001", "SYMP:0000462", "SYMP:9000003", "SYMP:9000004", "NOT A CURIE");
+        var records = new ArrayList<RADxDataDictionaryRecord>();
+        for (int i = 0; i < 64; i++) {
+            var record = record("de" + i, terms.get(i % terms.size()), terms.get((i * 7) % terms.size()));
+            when(record.section()).thenReturn("Section " + (i % 3));
+            records.add(record);
+        }
+        var dataDictionary = dataDictionary(records.toArray(RADxDataDictionaryRecord[]::new));
+
+        var sequential = serialize(createAxioms.createAxioms(dataDictionary, 1));
+        for (var parallelism : List.of(2, 4, 8)) {
+            assertThat(serialize(createAxioms.createAxioms(dataDictionary, parallelism))).isEqualTo(sequential);
+        }
+    }
+
+    @Test
+    void createsTheBaselineAxiomsForSectionsAndEnumerations() throws Exception {
+        var createAxioms = new CreateAxioms(new OWLDataFactoryImpl(), CYCLIC_TERMS);
+        var records = List.of(enumerated("age", "Demographics", "1", "Under 18", "2", "18 to 64", "3", "65 or over"),
+                              enumerated("sex", "Demographics", "1", "Female", "2", "Male"),
+                              enumerated("cough", "Symptoms", "0", "No", "1", "Yes"),
+                              enumerated("notes", "Symptoms"),
+                              enumerated("site", ""));
+        var dataDictionary = dataDictionary(records.toArray(RADxDataDictionaryRecord[]::new));
+
+        var expected = createBaselineAxioms(records);
+        assertThat(createAxioms.createAxioms(dataDictionary)).isEqualTo(expected);
+        assertThat(createAxioms.createAxioms(dataDictionary, 4)).isEqualTo(expected);
+
+        var passed = new ArrayList<OWLAxiom>();
+        createAxioms.createAxioms(dataDictionary, 1, passed::add);
+        assertThat(Set.copyOf(passed)).isEqualTo(expected);
+        var dataFactory = new OWLDataFactoryImpl();
+        var demographicsLabel = dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
+                                                                           IRI.create(PREFIX + "DemographicsDataElement"),
+                                                                           dataFactory.getOWLLiteral("Demographics Section"));
+        var ageValueDeclaration = dataFactory.getOWLDeclarationAxiom(dataFactory.getOWLClass(IRI.create(PREFIX + "age_value")));
+        assertThat(passed).containsOnlyOnce(demographicsLabel, ageValueDeclaration);
+    }
+
+    /**
+     * Creates the axioms for records without terms in the way that the original implementation did, with the
+     * section and value class axioms repeated for every record and every choice.
+     */
+    private static Set<OWLAxiom> createBaselineAxioms(List<RADxDataDictionaryRecord> records) throws Exception {
+        var df = new OWLDataFactoryImpl();
+        var axioms = new HashSet<OWLAxiom>();
+        var dataElementRootCls = df.getOWLClass(IRI.create(PREFIX, "DataElement"));
+        var text = df.getOWLAnnotationProperty(IRI.create("https://schema.org/text"));
+        axioms.add(df.getOWLDeclarationAxiom(dataElementRootCls));
+        for (var record : records) {
+            var id = record.id();
+            var iri = IRI.create(PREFIX + id);
+            var cls = df.getOWLClass(iri);
+            axioms.add(df.getOWLDeclarationAxiom(cls));
+            axioms.add(df.getOWLAnnotationAssertionAxiom(df.getOWLAnnotationProperty(IRI.create("https://schema.org/identifier")),
+                                                         iri,
+                                                         df.getOWLLiteral(id)));
+            axioms.add(df.getOWLSubClassOfAxiom(cls, dataElementRootCls));
+            var section = record.section();
+            if (!section.isEmpty()) {
+                var sectionIri = IRI.create(PREFIX + CaseUtils.toCamelCase(section, true) + "DataElement");
+                axioms.add(df.getOWLSubClassOfAxiom(df.getOWLClass(sectionIri),
+                                                    df.getOWLClass(IRI.create(PREFIX + "DataElementSection"))));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(df.getRDFSLabel(),
+                                                             sectionIri,
+                                                             df.getOWLLiteral(section + " Section")));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(df.getOWLAnnotationProperty(IRI.create(PREFIX + "isInSection")),
+                                                             iri,
+                                                             sectionIri));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(df.getRDFSSeeAlso(), sectionIri, iri));
+            }
+            for (var choice : record.enumeration().choices()) {
+                var choiceIri = IRI.create(PREFIX + id + "_" + choice.value());
+                var choiceCls = df.getOWLClass(choiceIri);
+                axioms.add(df.getOWLDeclarationAxiom(choiceCls));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(text, choiceIri, df.getOWLLiteral(choice.label())));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(df.getRDFSLabel(),
+                                                             choiceIri,
+                                                             df.getOWLLiteral(id + " Value, " + choice.value() + " (" + choice.label() + ")")));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(df.getOWLAnnotationProperty(IRI.create("https://schema.org/value")),
+                                                             choiceIri,
+                                                             df.getOWLLiteral(Integer.parseInt(choice.value()))));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(df.getRDFSSeeAlso(), choiceIri, iri));
+                var choiceRootValueIri = IRI.create(PREFIX + id + "_value");
+                var choiceRootValueCls = df.getOWLClass(choiceRootValueIri);
+                axioms.add(df.getOWLDeclarationAxiom(choiceRootValueCls));
+                axioms.add(df.getOWLSubClassOfAxiom(choiceCls, choiceRootValueCls));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(df.getRDFSLabel(),
+                                                             choiceRootValueIri,
+                                                             df.getOWLLiteral(id + " value")));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(df.getRDFSSeeAlso(), choiceRootValueIri, iri));
+                axioms.add(df.getOWLSubClassOfAxiom(choiceRootValueCls,
+                                                    df.getOWLClass(IRI.create(PREFIX + "DataElementValue"))));
+                axioms.add(df.getOWLAnnotationAssertionAxiom(df.getRDFSSeeAlso(), iri, choiceIri));
+            }
+        }
+        axioms.addAll(CreateAxioms.loadDefinitionAxioms().getAxioms());
+        return axioms;
+    }
+
+    /**
+     * Creates a record with no terms, in a section, whose enumeration has the specified values and labels.
+     */
+    private static RADxDataDictionaryRecord enumerated(String id, String section, String... valuesAndLabels) {
+        var record = record(id);
+        when(record.section()).thenReturn(section);
+        var choices = new ArrayList<EnumerationChoice>();
+        for (int i = 0; i < valuesAndLabels.length; i += 2) {
+            var choice = mock(EnumerationChoice.class);
+            when(choice.value()).thenReturn(valuesAndLabels[i]);
+            when(choice.label()).thenReturn(valuesAndLabels[i + 1]);
+            choices.add(choice);
+        }
+        var enumeration = mock(Enumeration.class);
+        when(enumeration.choices()).thenReturn(choices);
+        when(record.enumeration()).thenReturn(enumeration);
+        return record;
+    }
+
+    private static byte[] serialize(Set<OWLAxiom> axioms) throws Exception {
+        var manager = OWLManager.createOWLOntologyManager();
+        var ontology = manager.createOntology(axioms, IRI.create(PREFIX));
+        var out = new ByteArrayOutputStream();
+        manager.saveOntology(ontology, new FunctionalSyntaxDocumentFormat(), out);
+        return out.toByteArray();
+    }
+
+    private static CreateAxioms newCreateAxioms(OntCsvCache termsCache) throws Exception {
+        return new CreateAxioms(new OWLDataFactoryImpl(),
+                                termsCache,
+                                GenerationMetrics.createDefault(),
+                                CurieResolver.createDefault(),
+                                CategoryClassifier.loadDefault());
+    }
+
+    static RADxDataDictionary dataDictionary(RADxDataDictionaryRecord... records) {
+        var dataDictionary = mock(RADxDataDictionary.class);
+        when(dataDictionary.records()).thenReturn(List.of(records));
+        return dataDictionary;
+    }
+
+    static RADxDataDictionaryRecord record(String id, String... terms) {
+        var record = mock(RADxDataDictionaryRecord.class);
+        when(record.id()).thenReturn(id);
+        when(record.label()).thenReturn("");
+        when(record.description()).thenReturn("");
+        when(record.section()).thenReturn("");
+        var termIdentifiers = new ArrayList<TermIdentifier>();
+        for (var term : terms) {
+            var termIdentifier = mock(TermIdentifier.class);
+            when(termIdentifier.identifier()).thenReturn(term);
+            termIdentifiers.add(termIdentifier);
+        }
+        when(record.terms()).thenReturn(termIdentifiers);
+        return record;
+    }
+
+    /**
+     * Gets the IRIs of the terms that are linked back to a data element with rdfs:seeAlso.
+     */
+    private static Set<String> getBackLinks(Set<OWLAxiom> axioms, String id) {
+        return axioms.stream()
+                     .filter(axiom -> axiom instanceof OWLAnnotationAssertionAxiom)
+                     .map(axiom -> (OWLAnnotationAssertionAxiom) axiom)
+                     .filter(axiom -> axiom.getProperty().getIRI().equals(OWLRDFVocabulary.RDFS_SEE_ALSO.getIRI()))
+                     .filter(axiom -> axiom.getValue().equals(IRI.create(PREFIX + id)))
+                     .map(axiom -> axiom.getSubject().toString())
+                     .collect(Collectors.toSet());
+    }
+
+    private static Set<String> getCategories(Set<OWLAxiom> axioms, String id) {
+        var dataElement = IRI.create(PREFIX + id);
+        return axioms.stream()
+                     .filter(axiom -> axiom instanceof OWLSubClassOfAxiom)
+                     .map(axiom -> (OWLSubClassOfAxiom) axiom)
+                     .filter(axiom -> !axiom.getSubClass().isAnonymous() && !axiom.getSuperClass().isAnonymous())
+                     .filter(axiom -> axiom.getSubClass().asOWLClass().getIRI().equals(dataElement))
+                     .map(axiom -> axiom.getSuperClass().asOWLClass().getIRI().getShortForm())
+                     .filter(name -> !name.equals("DataElement"))
+                     .collect(Collectors.toSet());
+    }
+
+    /**
+     * A terms cache with a fixed hierarchy, in which each term is labelled with its IRI.
+     */
+    record FixtureCache(Map<String, List<String>> parents) implements OntCsvCache {
+
+        @Override
+        public List<String> getSynonyms(String oboId) {
+            return List.of();
+        }
+
+        @Override
+        public List<String> getDefinition(String oboId) {
+            return List.of();
+        }
+
+        @Override
+        public List<String> getParents(String oboId) {
+            return parents.getOrDefault(oboId, List.of());
+        }
+
+        @Override
+        public Optional<String> getLabel(IRI iri) {
+            return parents.containsKey(iri.toString()) ? Optional.of(iri.getShortForm()) : Optional.empty();
+        }
+
+        @Override
+        public Set<String> getTermIds() {
+            return parents.keySet();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CurieResolverTests {
+
+    @Test
+    void defaultRegistryExpandsIrisAndCuries() {
+        var resolver = CurieResolver.createDefault();
+
+        assertThat(resolver.resolve("HP:0000118").iriString()).isEqualTo("http://purl.obolibrary.org/obo/HP_0000118");
+        assertThat(resolver.resolve("NCIT:C25150").iriString())
+                .isEqualTo("http://ncicb.nci.nih.gov/xml/owl/EVS/Thesaurus.owl#C25150");
+        assertThat(resolver.resolve("http://purl.obolibrary.org/obo/SYMP_0000614").iriString())
+                .isEqualTo("http://purl.obolibrary.org/obo/SYMP_0000614");
+        assertThat(resolver.resolve("unspecified").isResolved()).isFalse();
+        assertThat(resolver.resolve("HP:0000118")).isSameAs(resolver.resolve("HP:0000118"));
+    }
+
+    @Test
+    void doesNotMemoizeUnresolvedIdentifiers() {
+        var resolver = CurieResolver.createDefault();
+
+        assertThat(resolver.resolve("unspecified")).isNotSameAs(resolver.resolve("unspecified"));
+    }
+
+    @Test
+    void overridesAddPrefixesAndReplaceFallback(@TempDir Path dir) throws Exception {
+        var overrides = Files.writeString(dir.resolve("prefixes.json"), """
+                {
+                  "prefixes": { "LOINC:": "https://loinc.org/" },
+                  "fallback": ""
+                }
+                """);
+        var resolver = new CurieResolver(CuriePrefixRegistry.loadDefault().withOverrides(overrides));
+
+        assertThat(resolver.resolve("LOINC:94500-6").iriString()).isEqualTo("https://loinc.org/94500-6");
+        assertThat(resolver.resolve("NCIT:C25150").isResolved()).isTrue();
+        assertThat(resolver.resolve("HP:0000118").problem()).isEqualTo("unknown CURIE prefix");
+    }
+}
@@ -0,0 +1,22 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = FastStartApplication.class)
+class FastStartApplicationTests {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void wiresTheConversionBeansWithoutScanning() {
+        assertThat(context.getBean(CreateAxioms.class)).isNotNull();
+        assertThat(context.getBean(ConversionRunner.class)).isNotNull();
+        assertThat(context.getBeanNamesForType(ConversionService.class)).isEmpty();
+    }
+}
@@ -0,0 +1,45 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.vocab.SKOSVocabulary;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FunctionalSyntaxAxiomWriterTests {
+
+    private static final String PREFIX = "https://bmir-radx.github.io/";
+
+    @Test
+    void writesEachDistinctAxiomOnce() throws Exception {
+        var dataFactory = new OWLDataFactoryImpl();
+        var cls = dataFactory.getOWLClass(IRI.create(PREFIX + "DataElement"));
+        var term = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/HP_0000118"));
+        List<OWLAxiom> axioms = List.of(dataFactory.getOWLDeclarationAxiom(cls),
+                                        dataFactory.getOWLDeclarationAxiom(term),
+                                        dataFactory.getOWLSubClassOfAxiom(cls, term),
+                                        dataFactory.getOWLAnnotationAssertionAxiom(
+                                                dataFactory.getOWLAnnotationProperty(SKOSVocabulary.ALTLABEL.getIRI()),
+                                                term.getIRI(),
+                                                dataFactory.getOWLLiteral("Phenotypic abnormality")));
+
+        var out = new StringWriter();
+        var writer = new FunctionalSyntaxAxiomWriter(out, IRI.create(PREFIX), PREFIX);
+        axioms.forEach(writer::add);
+        axioms.forEach(writer::add);
+        writer.close();
+
+        assertThat(writer.getAxiomCount()).isEqualTo(axioms.size());
+        var ontology = OWLManager.createOWLOntologyManager()
+                                 .loadOntologyFromOntologyDocument(new StringDocumentSource(out.toString()));
+        assertThat(ontology.getOntologyID().getOntologyIRI().asSet()).containsExactly(IRI.create(PREFIX));
+        assertThat(ontology.getAxioms()).containsExactlyInAnyOrderElementsOf(axioms);
+    }
+}
@@ -0,0 +1,73 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.semanticweb.owlapi.model.IRI;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationMetricsTests {
+
+    private static final String TERM = "http://purl.obolibrary.org/obo/IAO_0020015";
+
+    @Test
+    void reportsSourceLoadsCacheLookupsAndUnresolvedIdentifiers(@TempDir Path dir) throws Exception {
+        var metrics = new GenerationMetrics(new SimpleMeterRegistry());
+        var loaded = new OntCsvCacheLoader(1, metrics).load(List.of(OntCsvSource.IAO));
+        var cache = new MeteredOntCsvCache(loaded, metrics);
+        metrics.timeStage("lookup", () -> cache.getLabel(IRI.create(TERM)));
+        cache.getLabel(IRI.create("http://purl.obolibrary.org/obo/IAO_9999999"));
+        metrics.recordUnresolvedIdentifier("LOINC 94500-6", "nih_age", "not an IRI or CURIE");
+        metrics.recordUnresolvedIdentifier("LOINC 94309-2", "nih_sex", "not an IRI or CURIE");
+
+        var report = dir.resolve("report.json");
+        metrics.writeReport(report);
+
+        var json = new ObjectMapper().readTree(report.toFile());
+        assertThat(json.at("/stageDurationsMillis/lookup").isNumber()).isTrue();
+        assertThat(json.at("/ontologySources/IAO/rows").asLong()).isPositive();
+        assertThat(json.at("/ontologySources/IAO/bytes").asLong()).isEqualTo(OntCsvSource.IAO.getContentLength());
+        assertThat(json.at("/cacheLookups/label/hits").asLong()).isEqualTo(1);
+        assertThat(json.at("/cacheLookups/label/misses").asLong()).isEqualTo(1);
+        assertThat(json.at("/unresolvedIdentifiers/LOINC").asLong()).isEqualTo(2);
+        assertThat(json.at("/unresolvedTerms/0/identifier").asText()).isEqualTo("LOINC 94309-2");
+        assertThat(json.at("/unresolvedTerms/0/records/0").asText()).isEqualTo("nih_sex");
+    }
+
+    @Test
+    void tagsUnknownPrefixesAsOther(@TempDir Path dir) throws Exception {
+        var metrics = new GenerationMetrics(new SimpleMeterRegistry());
+        metrics.recordUnresolvedIdentifier("loinc 94500-6", "nih_age", "not an IRI or CURIE");
+        metrics.recordUnresolvedIdentifier("XYZZY 1", "nih_age", "not an IRI or CURIE");
+        metrics.recordUnresolvedIdentifier("PLUGH 2", "nih_sex", "not an IRI or CURIE");
+
+        var report = dir.resolve("report.json");
+        metrics.writeReport(report);
+
+        var json = new ObjectMapper().readTree(report.toFile());
+        assertThat(json.at("/unresolvedIdentifiers/LOINC").asLong()).isEqualTo(1);
+        assertThat(json.at("/unresolvedIdentifiers/other").asLong()).isEqualTo(2);
+        assertThat(json.at("/unresolvedIdentifiers").size()).isEqualTo(2);
+        assertThat(json.at("/unresolvedTerms/0/prefix").asText()).isEqualTo("PLUGH");
+    }
+
+    @Test
+    void collectsUnresolvedIdentifiersForEachConversion(@TempDir Path dir) throws Exception {
+        var metrics = new GenerationMetrics(new SimpleMeterRegistry());
+        var conversion = metrics.forConversion();
+        conversion.recordUnresolvedIdentifier("LOINC 94500-6", "nih_age", "not an IRI or CURIE");
+
+        var report = dir.resolve("report.json");
+        metrics.writeReport(report);
+
+        var json = new ObjectMapper().readTree(report.toFile());
+        assertThat(conversion.getRegistry()).isSameAs(metrics.getRegistry());
+        assertThat(json.at("/unresolvedIdentifiers/LOINC").asLong()).isEqualTo(1);
+        assertThat(json.at("/unresolvedTerms").size()).isZero();
+    }
+}
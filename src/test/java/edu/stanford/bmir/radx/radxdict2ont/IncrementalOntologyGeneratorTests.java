@@ -0,0 +1,116 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.semanticweb.owlapi.model.IRI;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static edu.stanford.bmir.radx.radxdict2ont.CreateAxiomsTests.dataDictionary;
+import static edu.stanford.bmir.radx.radxdict2ont.CreateAxiomsTests.record;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class IncrementalOntologyGeneratorTests {
+
+    private static final IRI ONTOLOGY_IRI = IRI.create("https://bmir-radx.github.io/");
+
+    private static final String OBO = "http://purl.obolibrary.org/obo/";
+
+    private static final OntCsvCache TERMS = new CreateAxiomsTests.FixtureCache(
+            Map.of(OBO + "SYMP_9000001", List.of(OBO + "SYMP_0000462"),
+                   OBO + "SYMP_9000002", List.of(OBO + "SYMP_0000462"),
+                   OBO + "SYMP_9000003", List.of(OBO + "SYMP_9000002"),
+                   OBO + "SYMP_0000462", List.of()));
+
+    private final RADxDataDictionaryRecord kept = record("kept", "SYMP:9000001");
+
+    private final RADxDataDictionaryRecord changedBefore = record("changed", "SYMP:9000002");
+
+    private final RADxDataDictionaryRecord changedAfter = record("changed", "SYMP:9000003");
+
+    private final RADxDataDictionaryRecord removed = record("removed", "SYMP:9000002");
+
+    private final RADxDataDictionaryRecord added = record("added", "SYMP:0000462");
+
+    @Test
+    void regeneratesOnlyAddedAndChangedRecords(@TempDir Path dir) throws Exception {
+        var createAxioms = spy(newCreateAxioms());
+        var generator = new IncrementalOntologyGenerator(createAxioms, ONTOLOGY_IRI, List.of(), "1.0");
+        var output = dir.resolve("incremental.ofn");
+        generator.generate(dataDictionary(kept, changedBefore, removed), output);
+        var before = Files.readAllLines(output);
+
+        var diff = generator.generate(dataDictionary(kept, changedAfter, added), output);
+
+        verify(createAxioms).createRecordAxioms(List.of(changedAfter, added));
+        var full = dir.resolve("full.ofn");
+        new IncrementalOntologyGenerator(newCreateAxioms(), ONTOLOGY_IRI, List.of(), "1.0")
+                .generate(dataDictionary(kept, changedAfter, added), full);
+        assertThat(Files.readString(output)).isEqualTo(Files.readString(full));
+
+        var after = Files.readAllLines(output);
+        var addedAxioms = new TreeSet<>(after);
+        before.forEach(addedAxioms::remove);
+        var removedAxioms = new TreeSet<>(before);
+        after.forEach(removedAxioms::remove);
+        assertThat(diff.addedRecords()).containsExactly("added");
+        assertThat(diff.changedRecords()).containsExactly("changed");
+        assertThat(diff.removedRecords()).containsExactly("removed");
+        assertThat(diff.addedAxioms()).isNotEmpty().containsExactlyElementsOf(addedAxioms);
+        assertThat(diff.removedAxioms()).isNotEmpty().containsExactlyElementsOf(removedAxioms);
+    }
+
+    @Test
+    void regeneratesEveryRecordWhenTheGenerationKeyChanges(@TempDir Path dir) throws Exception {
+        var output = dir.resolve("incremental.ofn");
+        new IncrementalOntologyGenerator(newCreateAxioms(), ONTOLOGY_IRI, List.of(), "1.0")
+                .generate(dataDictionary(kept, changedBefore), output);
+        var before = Files.readString(output);
+
+        var createAxioms = spy(newCreateAxioms());
+        var diff = new IncrementalOntologyGenerator(createAxioms, ONTOLOGY_IRI, List.of(), "2.0")
+                .generate(dataDictionary(kept, changedBefore), output);
+
+        verify(createAxioms).createRecordAxioms(List.of(kept, changedBefore));
+        assertThat(diff.addedRecords()).containsExactly("kept", "changed");
+        assertThat(diff.changedRecords()).isEmpty();
+        assertThat(Files.readString(output)).isEqualTo(before);
+    }
+
+    @Test
+    void regeneratesEveryRecordWhenTheSettingsChange(@TempDir Path dir) throws Exception {
+        var output = dir.resolve("incremental.ofn");
+        new IncrementalOntologyGenerator(newCreateAxioms(), ONTOLOGY_IRI, List.of("classify=true"), "1.0")
+                .generate(dataDictionary(kept), output);
+
+        var createAxioms = spy(newCreateAxioms());
+        new IncrementalOntologyGenerator(createAxioms, ONTOLOGY_IRI, List.of("classify=false"), "1.0")
+                .generate(dataDictionary(kept), output);
+
+        verify(createAxioms).createRecordAxioms(List.of(kept));
+    }
+
+    @Test
+    void listsTheOntologyStateAndDiffAsOutputs() {
+        var output = Path.of("out", "ont.owl");
+
+        assertThat(IncrementalOntologyGenerator.getOutputPaths(output))
+                .containsExactly(output, Path.of("out", "ont.owl.state.json"), Path.of("out", "ont.owl.diff.json"));
+    }
+
+    private static CreateAxioms newCreateAxioms() throws Exception {
+        return new CreateAxioms(new OWLDataFactoryImpl(),
+                                TERMS,
+                                GenerationMetrics.createDefault(),
+                                CurieResolver.createDefault(),
+                                CategoryClassifier.loadDefault());
+    }
+}
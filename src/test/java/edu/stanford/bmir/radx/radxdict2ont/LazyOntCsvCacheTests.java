@@ -0,0 +1,56 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazyOntCsvCacheTests {
+
+    private static final String SYMP_0000821 = "http://purl.obolibrary.org/obo/SYMP_0000821";
+
+    @Test
+    void looksUpTermsFromTheDefiningSource() throws IOException {
+        var eager = new OntCsvCacheLoader(1).load(List.of(OntCsvSource.SYMP));
+        var lazy = new LazyOntCsvCache(List.of(OntCsvSource.IAO, OntCsvSource.SYMP), new OntCsvCacheLoader(2));
+
+        assertThat(lazy.getLabel(IRI.create(SYMP_0000821))).isEqualTo(eager.getLabel(IRI.create(SYMP_0000821)));
+        assertThat(lazy.getSynonyms(SYMP_0000821)).isEqualTo(eager.getSynonyms(SYMP_0000821));
+        assertThat(lazy.getDefinition(SYMP_0000821)).isEqualTo(eager.getDefinition(SYMP_0000821));
+        assertThat(lazy.getParents(SYMP_0000821)).isEqualTo(eager.getParents(SYMP_0000821));
+    }
+
+    @Test
+    void loadsEverySourceForUndefinedNamespaces() throws IOException {
+        var eager = new OntCsvCacheLoader(2).load(List.of(OntCsvSource.IAO, OntCsvSource.SYMP));
+        var lazy = new LazyOntCsvCache(List.of(OntCsvSource.IAO, OntCsvSource.SYMP), new OntCsvCacheLoader(2));
+
+        var bfoTerm = "http://purl.obolibrary.org/obo/BFO_0000001";
+        assertThat(lazy.getLabel(IRI.create(bfoTerm))).isEqualTo(eager.getLabel(IRI.create(bfoTerm)));
+        assertThat(lazy.getTermIds()).isEqualTo(eager.getTermIds());
+    }
+
+    @Test
+    void retriesSourcesThatFailedToLoad() throws IOException {
+        var attempts = new AtomicInteger();
+        var loader = new OntCsvCacheLoader(1) {
+            @Override
+            public List<InMemoryOntCsvCache> loadEach(List<OntCsvSource> sources) throws IOException {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new OutOfMemoryError("Java heap space");
+                }
+                return super.loadEach(sources);
+            }
+        };
+        var lazy = new LazyOntCsvCache(List.of(OntCsvSource.SYMP), loader);
+
+        assertThatThrownBy(() -> lazy.getLabel(IRI.create(SYMP_0000821))).isInstanceOf(OutOfMemoryError.class);
+        assertThat(lazy.getLabel(IRI.create(SYMP_0000821))).isPresent();
+        assertThat(attempts).hasValue(2);
+    }
+}
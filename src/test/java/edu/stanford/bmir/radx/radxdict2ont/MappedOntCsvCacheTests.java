@@ -0,0 +1,43 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.semanticweb.owlapi.model.IRI;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedOntCsvCacheTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void snapshotRoundTripsEveryTerm() throws IOException {
+        var cache = new InMemoryOntCsvCache();
+        cache.load(OntCsvSource.IAO.openStream());
+        var snapshot = tempDir.resolve("ont-csv-cache.bin");
+        MappedOntCsvCache.write(cache, snapshot);
+
+        var mapped = MappedOntCsvCache.open(snapshot);
+        assertThat(mapped.getTermIds()).isEqualTo(cache.getTermIds());
+        for (var termId : cache.getTermIds()) {
+            assertThat(mapped.getLabel(IRI.create(termId))).isEqualTo(cache.getLabel(IRI.create(termId)));
+            assertThat(mapped.getSynonyms(termId)).isEqualTo(cache.getSynonyms(termId));
+            assertThat(mapped.getDefinition(termId)).isEqualTo(cache.getDefinition(termId));
+            assertThat(mapped.getParents(termId)).isEqualTo(cache.getParents(termId));
+        }
+    }
+
+    @Test
+    void returnsEmptyResultsForUnknownTerms() throws IOException {
+        var snapshot = tempDir.resolve("empty.bin");
+        MappedOntCsvCache.write(new InMemoryOntCsvCache(), snapshot);
+
+        var mapped = MappedOntCsvCache.open(snapshot);
+        assertThat(mapped.getLabel(IRI.create("http://example.org/unknown"))).isEmpty();
+        assertThat(mapped.getParents("http://example.org/unknown")).isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OntCsvCacheLoaderTests {
+
+    private static final List<OntCsvSource> SOURCES = List.of(OntCsvSource.IAO,
+                                                              OntCsvSource.PATO,
+                                                              OntCsvSource.SYMP);
+
+    private static final List<String> TERMS = List.of("http://purl.obolibrary.org/obo/IAO_0020015",
+                                                      "http://purl.obolibrary.org/obo/PATO_0000001",
+                                                      "http://purl.obolibrary.org/obo/SYMP_0000829");
+
+    @Test
+    void parallelLoadMatchesSequentialLoad() throws IOException {
+        var sequential = new InMemoryOntCsvCache();
+        for (var source : SOURCES) {
+            sequential.load(source.openStream());
+        }
+        var parallel = new OntCsvCacheLoader(SOURCES.size()).load(SOURCES);
+        for (var term : TERMS) {
+            assertThat(parallel.getLabel(IRI.create(term))).isEqualTo(sequential.getLabel(IRI.create(term)));
+            assertThat(parallel.getSynonyms(term)).isEqualTo(sequential.getSynonyms(term));
+            assertThat(parallel.getDefinition(term)).isEqualTo(sequential.getDefinition(term));
+            assertThat(parallel.getParents(term)).isEqualTo(sequential.getParents(term));
+        }
+        assertThat(parallel.getLabel(IRI.create(TERMS.get(1)))).isPresent();
+    }
+}
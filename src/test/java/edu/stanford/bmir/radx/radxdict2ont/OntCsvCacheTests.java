@@ -0,0 +1,47 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OntCsvCacheTests {
+
+    private static final String IAO_0020015 = "http://purl.obolibrary.org/obo/IAO_0020015";
+
+    @Test
+    void loadsProjectedColumns() throws IOException {
+        var cache = new InMemoryOntCsvCache();
+        cache.load(new BufferedInputStream(OntCsvCacheTests.class.getResourceAsStream("/IAO.csv.gz")));
+        assertThat(cache.getLabel(IRI.create(IAO_0020015))).isPresent();
+        assertThat(cache.getParents(IAO_0020015)).containsExactly("http://purl.obolibrary.org/obo/IAO_0020000");
+    }
+
+    @Test
+    void skipsHeaderRow() throws IOException {
+        var cache = new InMemoryOntCsvCache();
+        cache.load(new BufferedInputStream(OntCsvCacheTests.class.getResourceAsStream("/IAO.csv.gz")));
+        assertThat(cache.getLabel(IRI.create(OntCsvHeader.IRI))).isEmpty();
+    }
+
+    @Test
+    void returnsEmptyListsForUnknownTerms() {
+        var cache = new InMemoryOntCsvCache();
+        assertThat(cache.getSynonyms("http://example.org/unknown")).isEmpty();
+        assertThat(cache.getDefinition("http://example.org/unknown")).isEmpty();
+        assertThat(cache.getParents("http://example.org/unknown")).isEmpty();
+    }
+
+    @Test
+    void termsSeenOnlyAsParentsAreNotLoaded() throws IOException {
+        var cache = new InMemoryOntCsvCache();
+        cache.load(OntCsvSource.SYMP.openStream());
+        var parent = cache.getParents("http://purl.obolibrary.org/obo/SYMP_0000821").get(0);
+        assertThat(parent).isEqualTo("http://purl.obolibrary.org/obo/SYMP_0000514");
+        assertThat(cache.getTermIds()).allSatisfy(id -> assertThat(cache.getLabel(IRI.create(id))).isPresent());
+        assertThat(cache.getLabel(IRI.create("http://purl.obolibrary.org/obo/SYMP_"))).isEmpty();
+    }
+}
@@ -0,0 +1,65 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.vocab.SKOSVocabulary;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OntologySerializerTests {
+
+    private static final String PREFIX = "https://bmir-radx.github.io/";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesEachFormatFromTheSameOntology() throws Exception {
+        var dataFactory = new OWLDataFactoryImpl();
+        var cls = dataFactory.getOWLClass(IRI.create(PREFIX + "DataElement"));
+        var term = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/HP_0000118"));
+        List<OWLAxiom> axioms = List.of(dataFactory.getOWLDeclarationAxiom(cls),
+                                        dataFactory.getOWLDeclarationAxiom(term),
+                                        dataFactory.getOWLSubClassOfAxiom(cls, term),
+                                        dataFactory.getOWLAnnotationAssertionAxiom(
+                                                dataFactory.getOWLAnnotationProperty(SKOSVocabulary.ALTLABEL.getIRI()),
+                                                term.getIRI(),
+                                                dataFactory.getOWLLiteral("Phenotypic abnormality")));
+        var ontology = OWLManager.createOWLOntologyManager().createOntology(Set.copyOf(axioms), IRI.create(PREFIX));
+        var serializer = new OntologySerializer(List.of(OutputFormat.values()), OutputCompression.GZIP, 4);
+
+        var outputs = serializer.write(ontology, directory.resolve("ont.owl"));
+
+        assertThat(outputs).extracting(output -> output.getFileName().toString())
+                           .containsExactly("ont.owl.gz", "ont.ofn.gz", "ont.ttl.gz", "ont.jsonld.gz");
+        for (var output : outputs) {
+            try (var in = new GZIPInputStream(Files.newInputStream(output))) {
+                var loaded = OWLManager.createOWLOntologyManager()
+                                       .loadOntologyFromOntologyDocument(new StreamDocumentSource(in));
+                // RDF parsers also declare the annotation properties that they encounter
+                assertThat(loaded.getAxioms()).as(output.toString()).containsAll(axioms);
+            }
+        }
+    }
+
+    @Test
+    void namesOutputsAfterTheDestination() {
+        var serializer = new OntologySerializer(List.of(OutputFormat.forName("turtle"), OutputFormat.RDF_XML),
+                                                OutputCompression.NONE,
+                                                1);
+
+        assertThat(serializer.getOutputPaths(Path.of("/out/ontology")))
+                .containsExactly(Path.of("/out/ontology.ttl"), Path.of("/out/ontology.owl"));
+    }
+}
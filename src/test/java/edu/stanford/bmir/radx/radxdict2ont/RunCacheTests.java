@@ -0,0 +1,98 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RunCacheTests {
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+
+    private volatile String content = "Id,Label\nv1,Version one\n";
+
+    private volatile String etag = "\"1\"";
+
+    private final AtomicInteger fullResponses = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/dictionary.csv", exchange -> {
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            var bytes = content.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+            fullResponses.incrementAndGet();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void refetchesOnlyWhenTheDictionaryChanges() throws IOException {
+        var url = new URL("http://localhost:" + server.getAddress().getPort() + "/dictionary.csv");
+        var runCache = new RunCache(directory.resolve("cache"), "1.0");
+
+        var first = runCache.fetch(url);
+        var second = runCache.fetch(url);
+        assertThat(first.notModified()).isFalse();
+        assertThat(second.notModified()).isTrue();
+        assertThat(second.bytes()).isEqualTo(first.bytes());
+        assertThat(second.contentHash()).isEqualTo(first.contentHash());
+        assertThat(fullResponses).hasValue(1);
+
+        content = "Id,Label\nv2,Version two\n";
+        etag = "\"2\"";
+        var third = runCache.fetch(url);
+        assertThat(third.notModified()).isFalse();
+        assertThat(new String(third.bytes(), StandardCharsets.UTF_8)).isEqualTo(content);
+        assertThat(third.contentHash()).isNotEqualTo(first.contentHash());
+        assertThat(fullResponses).hasValue(2);
+    }
+
+    @Test
+    void restoresOutputsStoredUnderTheSameKey() throws IOException {
+        var input = Files.writeString(directory.resolve("dictionary.csv"), "Id,Label\nv1,Version one\n");
+        var output = Files.writeString(directory.resolve("ont.owl"), "<rdf:RDF/>");
+        var runCache = new RunCache(directory.resolve("cache"), "1.0");
+
+        var fetched = runCache.fetch(input.toUri().toURL());
+        var key = runCache.getGenerationKey(fetched.contentHash(), List.of("formats=rdf-xml"));
+        assertThat(runCache.restore(key, List.of(output))).isFalse();
+        runCache.store(key, List.of(output));
+
+        Files.delete(output);
+        assertThat(runCache.fetch(input.toUri().toURL()).contentHash()).isEqualTo(fetched.contentHash());
+        assertThat(runCache.restore(key, List.of(output))).isTrue();
+        assertThat(output).hasContent("<rdf:RDF/>");
+        assertThat(runCache.getGenerationKey(fetched.contentHash(), List.of("formats=turtle"))).isNotEqualTo(key);
+        var otherBuild = new RunCache(directory.resolve("cache"), "1.1");
+        assertThat(otherBuild.getGenerationKey(fetched.contentHash(), List.of("formats=rdf-xml"))).isNotEqualTo(key);
+    }
+}
@@ -0,0 +1,75 @@
+package edu.stanford.bmir.radx.radxdict2ont;
+
+import edu.stanford.bmir.radx.datadictionary.lib.RADxDataDictionaryRecord;
+import edu.stanford.bmir.radx.datadictionary.lib.TermIdentifier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TermIndexTests {
+
+    private static final String COUGH = "http://purl.obolibrary.org/obo/SYMP_0000614";
+
+    private static TermIndex index;
+
+    @BeforeAll
+    static void buildIndex() throws IOException {
+        var cache = new InMemoryOntCsvCache();
+        cache.load(OntCsvSource.SYMP.openStream());
+        index = TermIndex.build(cache);
+    }
+
+    @Test
+    void ranksExactNamesFirst() {
+        var matches = index.search("Do you have a cough?", 3);
+
+        assertThat(matches).isNotEmpty();
+        assertThat(matches.get(0).termIri()).isEqualTo(COUGH);
+        assertThat(matches.get(0).score()).isGreaterThan(0.99);
+        assertThat(matches).extracting(TermIndex.Match::score).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+    }
+
+    @Test
+    void matchesTokensThatAreNotIndexedByTheirTrigrams() {
+        assertThat(index.search("coughs", 3)).extracting(TermIndex.Match::termIri).contains(COUGH);
+        assertThat(index.search("zzzz", 3)).isEmpty();
+    }
+
+    @Test
+    void suggestsTermsForUnannotatedRecordsOnly() {
+        var unannotated = record("cough_present", "Cough", "");
+        var annotated = record("fever_present", "Fever", "", "SYMP:0000613");
+        var suggester = new TermSuggester(index, 3, 0.3);
+
+        var report = suggester.suggest(List.of(unannotated, annotated));
+
+        assertThat(report.unannotatedRecords()).isEqualTo(1);
+        assertThat(report.recordsWithSuggestions()).isEqualTo(1);
+        var suggestions = report.records().get(0);
+        assertThat(suggestions.id()).isEqualTo("cough_present");
+        assertThat(suggestions.suggestions().get(0).termIri()).isEqualTo(COUGH);
+        assertThat(suggestions.suggestions().get(0).matchedField()).isEqualTo("label");
+    }
+
+    private static RADxDataDictionaryRecord record(String id, String label, String description, String... terms) {
+        var termIdentifiers = new ArrayList<TermIdentifier>();
+        for (var term : terms) {
+            var termIdentifier = mock(TermIdentifier.class);
+            when(termIdentifier.identifier()).thenReturn(term);
+            termIdentifiers.add(termIdentifier);
+        }
+        var record = mock(RADxDataDictionaryRecord.class);
+        when(record.id()).thenReturn(id);
+        when(record.label()).thenReturn(label);
+        when(record.description()).thenReturn(description);
+        when(record.terms()).thenReturn(termIdentifiers);
+        return record;
+    }
+}